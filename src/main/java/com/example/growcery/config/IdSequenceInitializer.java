@@ -0,0 +1,73 @@
+package com.example.growcery.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Orders, order items and cart items moved from IDENTITY columns to
+ * pooled sequence ids. MySQL has no sequences, so Hibernate keeps each one in
+ * a single-row table that starts at 1; databases with real sequences (H2 in
+ * the tests) get a CREATE SEQUENCE instead. This moves every sequence past the
+ * ids the IDENTITY columns already handed out, before anything is inserted.
+ */
+@Component
+public class IdSequenceInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items",
+            "cart_items_seq", "cart_items");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceSupport sequenceSupport;
+
+    // Depending on the EntityManagerFactory guarantees the schema update has run
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceSupport = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport();
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            boolean moved = sequenceSupport.supportsSequences()
+                    ? alignSequence(sequence, table) : alignSequenceTable(sequence, table);
+            if (moved) {
+                logger.info("Moved id sequence {} past existing {} rows", sequence, table);
+            }
+        });
+    }
+
+    // The pooled optimizer hands out (value - allocationSize, value], so stay a full block ahead
+    private boolean alignSequenceTable(String sequence, String table) {
+        String floor = "(SELECT COALESCE(MAX(id), 0) + " + (ALLOCATION_SIZE + 1) + " FROM " + table + ")";
+        return jdbcTemplate.update("UPDATE " + sequence + " SET next_val = " + floor
+                + " WHERE next_val < " + floor) > 0;
+    }
+
+    // A real sequence can't be compared in SQL, so take one value: the block it stands for is given up,
+    // and the blocks after it are safe as long as it is not below the highest id in use
+    private boolean alignSequence(String sequence, String table) {
+        Long next = jdbcTemplate.queryForObject(sequenceSupport.getSequenceNextValString(sequence), Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        if (next == null || maxId == null || next >= maxId) {
+            return false;
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + ALLOCATION_SIZE + 1));
+        return true;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.growcery.model.Order;
 import com.example.growcery.model.Product;
 import com.example.growcery.model.User;
 import com.example.growcery.service.AIAgentService;
+import com.example.growcery.service.CheckoutRequestService;
 import com.example.growcery.service.ProductService;
 import com.example.growcery.service.UserService;
 import org.slf4j.Logger;
@@ -18,6 +19,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Controller
@@ -28,11 +30,14 @@ public class AIShoppingController {
     private final AIAgentService aiAgentService;
     private final UserService userService;
     private final ProductService productService;
+    private final CheckoutRequestService checkoutRequestService;
 
-    public AIShoppingController(AIAgentService aiAgentService, UserService userService, ProductService productService) {
+    public AIShoppingController(AIAgentService aiAgentService, UserService userService, ProductService productService,
+                                CheckoutRequestService checkoutRequestService) {
         this.aiAgentService = aiAgentService;
         this.userService = userService;
         this.productService = productService;
+        this.checkoutRequestService = checkoutRequestService;
     }
 
     @GetMapping
@@ -57,6 +62,7 @@ public class AIShoppingController {
             model.addAttribute("aiSituation", situation);
             model.addAttribute("recommendations", recommendations);
             model.addAttribute("memory", aiAgentService.getUserMemory(user.getId()));
+            model.addAttribute("requestKey", UUID.randomUUID().toString());
             
             return "ai-shopping";
         }
@@ -68,6 +74,7 @@ public class AIShoppingController {
     @PostMapping("/create-order")
     public String createOrder(@RequestParam String situation,
                              @RequestParam(required = false) List<Long> productIds,
+                             @RequestParam(required = false) String requestKey,
                              @RequestParam Map<String, String> allParams,
                              Authentication authentication,
                              RedirectAttributes redirectAttributes) {
@@ -118,8 +125,10 @@ public class AIShoppingController {
                 logger.info("Creating order with {} products and the following quantities: {}", 
                            selectedProducts.size(), productQuantities);
                            
-                Order order = aiAgentService.createOrderFromAIRecommendationsWithQuantities(
-                    user.getId(), selectedProducts, productQuantities, situation);
+                // A repeated request key returns the order it already placed instead of re-adding to the cart
+                Order order = checkoutRequestService.placeOnce(requestKey, user.getId(),
+                    () -> aiAgentService.createOrderFromAIRecommendationsWithQuantities(
+                        user.getId(), selectedProducts, productQuantities, situation));
                 redirectAttributes.addFlashAttribute("success", "Order created successfully based on AI recommendations");
                 return "redirect:/orders/" + order.getId();
             } catch (Exception e) {
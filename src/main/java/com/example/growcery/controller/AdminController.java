@@ -1,14 +1,22 @@
 package com.example.growcery.controller;
 
+import com.example.growcery.dto.CustomerPage;
+import com.example.growcery.dto.OrderPage;
+import com.example.growcery.dto.OrderView;
 import com.example.growcery.dto.ProductDTO;
+import com.example.growcery.dto.ProductSummary;
 import com.example.growcery.model.Order;
 import com.example.growcery.model.Product;
 import com.example.growcery.model.User;
+import com.example.growcery.service.DashboardCounters;
+import com.example.growcery.service.LowStockMonitor;
 import com.example.growcery.service.OrderService;
 import com.example.growcery.service.ProductDescriptionService;
 import com.example.growcery.service.ProductService;
+import com.example.growcery.service.SalesRollups;
 import com.example.growcery.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +25,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
@@ -34,29 +43,42 @@ public class AdminController {
     private final ProductService productService;
     private final OrderService orderService;
     private final ProductDescriptionService productDescriptionService;
+    private final DashboardCounters dashboardCounters;
+    private final SalesRollups salesRollups;
+    private final LowStockMonitor lowStockMonitor;
     private final HttpServletRequest request;
 
     public AdminController(UserService userService, 
                          ProductService productService, 
                          OrderService orderService,
                          ProductDescriptionService productDescriptionService,
+                         DashboardCounters dashboardCounters,
+                         SalesRollups salesRollups,
+                         LowStockMonitor lowStockMonitor,
                          HttpServletRequest request) {
         this.userService = userService;
         this.productService = productService;
         this.orderService = orderService;
         this.productDescriptionService = productDescriptionService;
+        this.dashboardCounters = dashboardCounters;
+        this.salesRollups = salesRollups;
+        this.lowStockMonitor = lowStockMonitor;
         this.request = request;
     }
 
     @GetMapping("/dashboard")
-    public String dashboard(Model model) {
-        List<Product> products = productService.getAllProducts();
-        List<User> customers = userService.getAllCustomers();
-        List<Order> orders = orderService.getAllOrders();
-        
-        model.addAttribute("productsCount", products.size());
-        model.addAttribute("customersCount", customers.size());
-        model.addAttribute("ordersCount", orders.size());
+    public String dashboard(@RequestParam(required = false) Integer refresh, Model model) {
+        model.addAttribute("productsCount", dashboardCounters.getProductsCount());
+        model.addAttribute("customersCount", dashboardCounters.getCustomersCount());
+        model.addAttribute("ordersCount", dashboardCounters.getOrdersCount());
+        model.addAttribute("sales", salesRollups.getSummary());
+        model.addAttribute("lowStock", lowStockMonitor.getWatchList());
+        model.addAttribute("stockAlerts", lowStockMonitor.getRecentAlerts());
+        model.addAttribute("stockAlertDays", lowStockMonitor.getAlertDays());
+        // Wall screens reload the page on their own, no more often than every 10 seconds
+        if (refresh != null) {
+            model.addAttribute("refreshSeconds", Math.max(10, refresh));
+        }
         
         return "admin/dashboard";
     }
@@ -64,7 +86,7 @@ public class AdminController {
     // Product Management
     @GetMapping("/products")
     public String productList(Model model) {
-        List<Product> products = productService.getAllProducts();
+        List<ProductSummary> products = productService.getProductSummaries();
         model.addAttribute("products", products);
         return "admin/products";
     }
@@ -163,22 +185,31 @@ public class AdminController {
     
     // Customer Management
     @GetMapping("/customers")
-    public String customerList(Model model) {
-        List<User> customers = userService.getAllCustomers();
-        model.addAttribute("customers", customers);
+    public String customerList(@RequestParam(required = false) String q,
+                               @RequestParam(required = false) Long after,
+                               @RequestParam(required = false) Integer size,
+                               Model model) {
+        CustomerPage page = userService.getCustomerPage(q, after, size);
+        model.addAttribute("customers", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("q", q);
         return "admin/customers";
     }
     
     @GetMapping("/customers/{id}/orders")
-    public String customerOrders(@PathVariable Long id, Model model) {
+    public String customerOrders(@PathVariable Long id,
+                                 @RequestParam(required = false) Long after,
+                                 @RequestParam(required = false) Integer size,
+                                 Model model) {
         Optional<User> customerOptional = userService.getUserById(id);
         
         if (customerOptional.isPresent()) {
             User customer = customerOptional.get();
-            List<Order> orders = orderService.getOrdersByCustomerId(customer.getId());
+            OrderPage page = orderService.getOrderPage(customer.getId(), after, size);
             
             model.addAttribute("customer", customer);
-            model.addAttribute("orders", orders);
+            model.addAttribute("orders", page.getItems());
+            model.addAttribute("page", page);
             return "admin/customer-orders";
         }
         
@@ -187,23 +218,35 @@ public class AdminController {
     
     // Order Management
     @GetMapping("/orders")
-    public String orderList(Model model) {
-        List<Order> orders = orderService.getAllOrders();
-        model.addAttribute("orders", orders);
+    public String orderList(@RequestParam(required = false) Long after,
+                            @RequestParam(required = false) Integer size,
+                            Model model) {
+        OrderPage page = orderService.getOrderPage(null, after, size);
+        model.addAttribute("orders", page.getItems());
+        model.addAttribute("page", page);
         return "admin/orders";
     }
     
     @GetMapping("/orders/{id}")
-    public String orderDetails(@PathVariable Long id, Model model) {
-        Optional<Order> orderOptional = orderService.getOrderById(id);
+    public String orderDetails(@PathVariable Long id, Model model,
+                               WebRequest webRequest, HttpServletResponse response) {
+        Optional<OrderView> viewOptional = orderService.getOrderView(id);
         
-        if (orderOptional.isPresent()) {
-            Order order = orderOptional.get();
-            Optional<User> customerOptional = userService.getUserById(order.getCustomerId());
+        if (viewOptional.isPresent()) {
+            OrderView view = viewOptional.get();
+            Order order = view.getOrder();
+            // The customer card is part of the page, so their current details are part of the tag
+            User customer = userService.getUserById(order.getCustomerId()).orElse(null);
+            if (OrderViewEtags.notModified(webRequest, model, view, customer)) {
+                return null;
+            }
             
             model.addAttribute("order", order);
-            model.addAttribute("orderItems", orderService.getOrderItemsByOrderId(id));
-            customerOptional.ifPresent(customer -> model.addAttribute("customer", customer));
+            model.addAttribute("orderItems", view.getItems());
+            if (customer != null) {
+                model.addAttribute("customer", customer);
+            }
+            OrderViewEtags.tag(webRequest, response, model, view, customer);
             
             return "admin/order-details";
         }
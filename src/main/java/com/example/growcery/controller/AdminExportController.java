@@ -0,0 +1,74 @@
+package com.example.growcery.controller;
+
+import com.example.growcery.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Order line and product exports for admins. Rows are written to the response
+ * as they come off the database cursor, so nothing is collected in memory.
+ */
+@Controller
+@RequestMapping("/admin/export")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminExportController.class);
+
+    private final ExportService exportService;
+
+    public AdminExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // Order lines placed from `from` up to but not including `to`; defaults to the current month
+    @GetMapping("/orders")
+    public void exportOrders(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(required = false) String format,
+                             HttpServletResponse response) throws IOException {
+        if (from == null) {
+            from = LocalDate.now().withDayOfMonth(1);
+        }
+        if (to == null || !to.isAfter(from)) {
+            to = from.plusMonths(1);
+        }
+        ExportService.Format exportFormat = ExportService.Format.fromParam(format);
+        Writer out = open(response, exportFormat, "orders-" + from + "-to-" + to);
+        long rows = exportService.writeOrderLines(from.atStartOfDay(), to.atStartOfDay(), exportFormat, out);
+        logger.info("Exported {} order lines from {} to {}", rows, from, to);
+    }
+
+    @GetMapping("/products")
+    public void exportProducts(@RequestParam(required = false) String format,
+                               HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.fromParam(format);
+        Writer out = open(response, exportFormat, "products-" + LocalDate.now());
+        long rows = exportService.writeProducts(exportFormat, out);
+        logger.info("Exported {} products", rows);
+    }
+
+    private static Writer open(HttpServletResponse response, ExportService.Format format, String name)
+            throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+        return new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.growcery.controller;
+
+import com.example.growcery.dto.ProductImportReport;
+import com.example.growcery.service.ExportService;
+import com.example.growcery.service.ProductImportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+@Controller
+@RequestMapping("/admin/import")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminImportController.class);
+
+    private final ProductImportService productImportService;
+
+    public AdminImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    @GetMapping
+    public String importPage(Model model) {
+        List<ProductImportReport> reports = productImportService.getRecentReports();
+        model.addAttribute("reports", reports);
+        model.addAttribute("running", reports.stream().anyMatch(ProductImportReport::isRunning));
+        return "admin/import";
+    }
+
+    // The import runs in the background; the page polls until it is done
+    @PostMapping
+    public String importProducts(@RequestParam("file") MultipartFile file, RedirectAttributes redirectAttributes) {
+        if (file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Please choose a CSV or JSONL file to import");
+            return "redirect:/admin/import";
+        }
+
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload";
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        ExportService.Format format = lower.endsWith(".jsonl") || lower.endsWith(".ndjson")
+                ? ExportService.Format.JSONL : ExportService.Format.CSV;
+
+        try (InputStream in = file.getInputStream()) {
+            ProductImportReport report = productImportService.submit(fileName, format, in);
+            if (report.getFailure() != null) {
+                redirectAttributes.addFlashAttribute("error", "Import of " + fileName + " did not start: "
+                        + report.getFailure());
+            } else {
+                redirectAttributes.addFlashAttribute("success", "Importing " + fileName
+                        + ", progress is shown below");
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read product import {}: {}", fileName, e.getMessage());
+            redirectAttributes.addFlashAttribute("error", "Failed to read " + fileName);
+        }
+        return "redirect:/admin/import";
+    }
+
+    // Rejected rows with their line number and reason, in the export column layout
+    @GetMapping("/{id}/errors")
+    public String downloadErrors(@PathVariable String id, HttpServletResponse response,
+                                 RedirectAttributes redirectAttributes) throws IOException {
+        Optional<Path> errorFile = productImportService.getErrorFile(id);
+        if (errorFile.isEmpty() || !Files.exists(errorFile.get())) {
+            redirectAttributes.addFlashAttribute("error", "No error file for this import");
+            return "redirect:/admin/import";
+        }
+
+        response.setContentType(ExportService.Format.CSV.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-errors-" + id + ".csv\"");
+        Files.copy(errorFile.get(), response.getOutputStream());
+        return null;
+    }
+}
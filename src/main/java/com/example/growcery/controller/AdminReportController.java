@@ -0,0 +1,92 @@
+package com.example.growcery.controller;
+
+import com.example.growcery.dto.ReportJob;
+import com.example.growcery.service.ExportService;
+import com.example.growcery.service.ReportJobs;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Controller
+@RequestMapping("/admin/reports")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminReportController {
+
+    private final ReportJobs reportJobs;
+
+    public AdminReportController(ReportJobs reportJobs) {
+        this.reportJobs = reportJobs;
+    }
+
+    @GetMapping
+    public String reportsPage(Model model) {
+        model.addAttribute("jobs", reportJobs.getRecentJobs());
+        model.addAttribute("types", ReportJob.Type.values());
+        model.addAttribute("defaultFrom", LocalDate.now().withDayOfYear(1));
+        model.addAttribute("defaultTo", LocalDate.now());
+        return "admin/reports";
+    }
+
+    // Both dates are inclusive; the job runs in the background and the page polls it
+    @PostMapping
+    public String runReport(@RequestParam ReportJob.Type type,
+                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                            RedirectAttributes redirectAttributes) {
+        try {
+            ReportJob job = reportJobs.submit(type, from, to);
+            return "redirect:/admin/reports/" + job.getId();
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/admin/reports";
+        }
+    }
+
+    @GetMapping("/{id}")
+    public String viewReport(@PathVariable String id, Model model, RedirectAttributes redirectAttributes) {
+        Optional<ReportJob> job = reportJobs.getJob(id);
+        if (job.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Report not found, it may have expired");
+            return "redirect:/admin/reports";
+        }
+        model.addAttribute("job", job.get());
+        return "admin/report";
+    }
+
+    @GetMapping("/{id}/download")
+    public String downloadReport(@PathVariable String id, HttpServletResponse response,
+                                 RedirectAttributes redirectAttributes) throws IOException {
+        Optional<ReportJob> job = reportJobs.getJob(id);
+        if (job.isEmpty() || job.get().getStatus() != ReportJob.Status.DONE) {
+            redirectAttributes.addFlashAttribute("error", "This report is not ready for download");
+            return "redirect:/admin/reports";
+        }
+
+        ReportJob report = job.get();
+        response.setContentType(ExportService.Format.CSV.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sales-by-"
+                + report.getType().getGroupName() + "-" + report.getFrom() + "-to-" + report.getTo() + ".csv\"");
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        reportJobs.writeCsv(report, out);
+        out.flush();
+        return null;
+    }
+}
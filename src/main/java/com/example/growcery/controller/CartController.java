@@ -1,6 +1,6 @@
 package com.example.growcery.controller;
 
-import com.example.growcery.model.CartItem;
+import com.example.growcery.dto.CartView;
 import com.example.growcery.model.User;
 import com.example.growcery.service.CartService;
 import com.example.growcery.service.UserService;
@@ -10,9 +10,8 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.math.BigDecimal;
-import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Controller
 @RequestMapping("/cart")
@@ -33,11 +32,12 @@ public class CartController {
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            List<CartItem> cartItems = cartService.getCartItemsByCustomerId(user.getId());
-            BigDecimal cartTotal = cartService.calculateCartTotal(user.getId());
+            CartView cart = cartService.getCartView(user.getId());
             
-            model.addAttribute("cartItems", cartItems);
-            model.addAttribute("cartTotal", cartTotal);
+            model.addAttribute("cartItems", cart.getItems());
+            model.addAttribute("cartTotal", cart.getTotal());
+            // Fresh key per rendered cart; resubmitting the same form places the order only once
+            model.addAttribute("requestKey", UUID.randomUUID().toString());
             return "cart";
         }
         
@@ -55,8 +55,11 @@ public class CartController {
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            cartService.addToCart(user.getId(), productId, quantity);
-            redirectAttributes.addFlashAttribute("success", "Product added to cart");
+            if (cartService.addToCart(user.getId(), productId, quantity)) {
+                redirectAttributes.addFlashAttribute("success", "Product added to cart");
+            } else {
+                redirectAttributes.addFlashAttribute("error", "Not enough stock available");
+            }
         }
         
         return "redirect:/products";
@@ -1,5 +1,7 @@
 package com.example.growcery.controller;
 
+import com.example.growcery.dto.ProductFilter;
+import com.example.growcery.dto.ProductPage;
 import com.example.growcery.model.Product;
 import com.example.growcery.service.ProductService;
 import org.springframework.security.core.Authentication;
@@ -9,11 +11,12 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.List;
-
 @Controller
 public class HomeController {
 
+    private static final int FEATURED_PRODUCTS = 4;
+    private static final int SEARCH_RESULTS = 48;
+
     private final ProductService productService;
 
     public HomeController(ProductService productService) {
@@ -30,29 +33,58 @@ public class HomeController {
             return "redirect:/admin/dashboard";
         }
         
-        List<Product> products = productService.getAllProducts();
-        model.addAttribute("products", products);
+        ProductPage featured = productService.getProductPage(new ProductFilter(), ProductPage.SortField.ID, null, FEATURED_PRODUCTS);
+        model.addAttribute("products", featured.getItems());
         return "home";
     }
     
     @GetMapping("/products")
-    public String products(@RequestParam(required = false) String category, Model model) {
-        List<Product> products;
+    public String products(@RequestParam(required = false) String category,
+                           @RequestParam(required = false) String price,
+                           @RequestParam(required = false) String tag,
+                           @RequestParam(defaultValue = "false") boolean inStock,
+                           @RequestParam(required = false) String sort,
+                           @RequestParam(required = false) String after,
+                           @RequestParam(required = false) Integer size,
+                           Model model) {
+        ProductFilter filter = new ProductFilter();
         
         if (category != null && !category.isEmpty()) {
             try {
                 Product.Category productCategory = Product.Category.valueOf(category.toUpperCase());
-                products = productService.getProductsByCategory(productCategory);
+                filter.withCategory(productCategory);
                 model.addAttribute("selectedCategory", productCategory);
             } catch (IllegalArgumentException e) {
-                products = productService.getAllProducts();
+                // Unknown category, show everything
             }
-        } else {
-            products = productService.getAllProducts();
         }
         
-        model.addAttribute("products", products);
+        ProductFilter.PriceRange priceRange = ProductFilter.PriceRange.fromParam(price);
+        filter.withPriceRange(priceRange).withTag(tag).withInStockOnly(inStock);
+        
+        ProductPage page = productService.getProductPage(filter, ProductPage.SortField.fromParam(sort), after, size);
+        
+        model.addAttribute("products", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("facets", productService.filterProducts(filter));
+        model.addAttribute("selectedPrice", priceRange);
+        model.addAttribute("selectedTag", filter.getTags().isEmpty() ? null : filter.getTags().iterator().next());
+        model.addAttribute("inStock", inStock);
+        model.addAttribute("priceRanges", ProductFilter.PriceRange.values());
+        model.addAttribute("sortFields", ProductPage.SortField.values());
+        model.addAttribute("categories", Product.Category.values());
+        return "products";
+    }
+    
+    @GetMapping("/products/search")
+    public String search(@RequestParam(name = "q", required = false) String query, Model model) {
+        if (query == null || query.isBlank()) {
+            return "redirect:/products";
+        }
+        
+        model.addAttribute("products", productService.searchProducts(query, SEARCH_RESULTS));
+        model.addAttribute("searchQuery", query);
         model.addAttribute("categories", Product.Category.values());
         return "products";
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,16 @@
 package com.example.growcery.controller;
 
+import com.example.growcery.dto.OrderPage;
+import com.example.growcery.dto.OrderView;
 import com.example.growcery.model.Order;
 import com.example.growcery.model.OrderItem;
 import com.example.growcery.model.User;
+import com.example.growcery.service.AsyncCheckoutService;
+import com.example.growcery.service.CheckoutBatcher;
+import com.example.growcery.service.CheckoutRequestService;
 import com.example.growcery.service.OrderService;
 import com.example.growcery.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,6 +18,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
@@ -23,21 +31,32 @@ public class OrderController {
 
     private final OrderService orderService;
     private final UserService userService;
+    private final AsyncCheckoutService asyncCheckoutService;
+    private final CheckoutBatcher checkoutBatcher;
+    private final CheckoutRequestService checkoutRequestService;
 
-    public OrderController(OrderService orderService, UserService userService) {
+    public OrderController(OrderService orderService, UserService userService,
+                           AsyncCheckoutService asyncCheckoutService, CheckoutBatcher checkoutBatcher,
+                           CheckoutRequestService checkoutRequestService) {
         this.orderService = orderService;
         this.userService = userService;
+        this.asyncCheckoutService = asyncCheckoutService;
+        this.checkoutBatcher = checkoutBatcher;
+        this.checkoutRequestService = checkoutRequestService;
     }
 
     @GetMapping
-    public String viewOrders(Model model, Authentication authentication) {
+    public String viewOrders(@RequestParam(required = false) Long after,
+                             @RequestParam(required = false) Integer size,
+                             Model model, Authentication authentication) {
         String username = authentication.getName();
         Optional<User> userOptional = userService.getUserByUsername(username);
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            List<Order> orders = orderService.getOrdersByCustomerId(user.getId());
-            model.addAttribute("orders", orders);
+            OrderPage page = orderService.getOrderPage(user.getId(), after, size);
+            model.addAttribute("orders", page.getItems());
+            model.addAttribute("page", page);
             return "orders";
         }
         
@@ -45,40 +64,52 @@ public class OrderController {
     }
     
     @GetMapping("/{orderId}")
-    public String viewOrderDetails(@PathVariable Long orderId, Model model, Authentication authentication) {
+    public String viewOrderDetails(@PathVariable Long orderId, Model model, Authentication authentication,
+                                   WebRequest webRequest, HttpServletResponse response) {
+        Optional<OrderView> viewOptional = orderService.getOrderView(orderId);
+        if (viewOptional.isEmpty()) {
+            return "redirect:/orders";
+        }
+        OrderView view = viewOptional.get();
+        Order order = view.getOrder();
+
+        // Ownership comes first: a 304 would otherwise tell anyone whether a guessed order exists
         String username = authentication.getName();
         Optional<User> userOptional = userService.getUserByUsername(username);
-        
-        if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            Optional<Order> orderOptional = orderService.getOrderById(orderId);
-            
-            if (orderOptional.isPresent()) {
-                Order order = orderOptional.get();
-                
-                // Check if the order belongs to the current user or the user is admin
-                if (order.getCustomerId().equals(user.getId()) || user.getRole() == User.Role.ADMIN) {
-                    List<OrderItem> orderItems = orderService.getOrderItemsByOrderId(orderId);
-                    model.addAttribute("order", order);
-                    model.addAttribute("orderItems", orderItems);
-                    return "order-details";
-                }
-            }
+        if (userOptional.isEmpty() || !(order.getCustomerId().equals(userOptional.get().getId())
+                || userOptional.get().getRole() == User.Role.ADMIN)) {
+            return "redirect:/orders";
         }
-        
-        return "redirect:/orders";
+
+        if (OrderViewEtags.notModified(webRequest, model, view)) {
+            return null;
+        }
+        model.addAttribute("order", order);
+        model.addAttribute("orderItems", view.getItems());
+        OrderViewEtags.tag(webRequest, response, model, view);
+        return "order-details";
     }
     
     @PostMapping("/checkout")
-    public String checkout(Authentication authentication, RedirectAttributes redirectAttributes) {
+    public String checkout(@RequestParam(required = false) String requestKey,
+                           Authentication authentication, RedirectAttributes redirectAttributes) {
         String username = authentication.getName();
         Optional<User> userOptional = userService.getUserByUsername(username);
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             
+            // A repeated request key (double submit, browser retry) returns the order it already placed
             try {
-                Order order = orderService.createOrderFromCart(user.getId());
+                if (asyncCheckoutService.isEnabled()) {
+                    Order order = checkoutRequestService.placeOnce(requestKey, user.getId(),
+                            () -> asyncCheckoutService.submitCheckout(user.getId()));
+                    redirectAttributes.addFlashAttribute("success", "Order received, we are confirming it now");
+                    return "redirect:/orders/" + order.getId();
+                }
+                
+                Order order = checkoutRequestService.placeOnce(requestKey, user.getId(),
+                        () -> checkoutBatcher.checkout(user.getId()));
                 redirectAttributes.addFlashAttribute("success", "Order placed successfully");
                 return "redirect:/orders/" + order.getId();
             } catch (RuntimeException e) {
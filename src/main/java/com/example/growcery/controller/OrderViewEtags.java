@@ -0,0 +1,51 @@
+package com.example.growcery.controller;
+
+import com.example.growcery.dto.OrderView;
+import com.example.growcery.model.User;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.ui.Model;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET for the order detail pages. A tag is only handed out after the
+ * page was authorised and rendered, and it is bound to the session. Callers must
+ * still authorise the request before asking for a 304: the tag is built from
+ * fields anyone can guess, so answering early would leak which orders exist.
+ */
+final class OrderViewEtags {
+
+    private OrderViewEtags() {
+    }
+
+    static boolean notModified(WebRequest request, Model model, OrderView view) {
+        return notModified(request, model, view, null);
+    }
+
+    // customer is whoever's details the page shows besides the order, or null
+    static boolean notModified(WebRequest request, Model model, OrderView view, User customer) {
+        if (!cacheable(model, view)) {
+            return false;
+        }
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        String etag = view.etagFor(request.getSessionId(), customer);
+        return ifNoneMatch != null && ifNoneMatch.contains(etag) && request.checkNotModified(etag);
+    }
+
+    static void tag(WebRequest request, HttpServletResponse response, Model model, OrderView view) {
+        tag(request, response, model, view, null);
+    }
+
+    static void tag(WebRequest request, HttpServletResponse response, Model model, OrderView view, User customer) {
+        if (cacheable(model, view)) {
+            response.setHeader(HttpHeaders.ETAG, view.etagFor(request.getSessionId(), customer));
+            // Keep the page in the browser but make it revalidate on every view
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+    }
+
+    // Pages carrying a one-off flash message are never tagged
+    private static boolean cacheable(Model model, OrderView view) {
+        return view.isFinalized() && !model.containsAttribute("success") && !model.containsAttribute("error");
+    }
+}
@@ -35,7 +35,7 @@ public class ProductDescriptionController {
 
     @GetMapping
     public String showDescriptionGenerator(Model model) {
-        model.addAttribute("products", productService.getAllProducts());
+        model.addAttribute("products", productService.getProductSummaries());
         return "admin/product-description";
     }
 
@@ -92,24 +92,9 @@ public class ProductDescriptionController {
         
         logger.info("Updating product description for ID: {}", productId);
         
-        Optional<Product> productOptional = productService.getProductById(productId);
-        
-        if (productOptional.isPresent()) {
-            Product product = productOptional.get();
-            
-            // Update description
-            if (description != null && !description.trim().isEmpty()) {
-                product.setProductDescription(description);
-            }
-            
-            // Update keywords if provided
-            if (keywords != null) {
-                product.setSeoKeywords(keywords);
-            }
-            
-            // Save the product
-            productService.updateProduct(product);
-            
+        // Only the description and keywords are written; a blank description keeps the current one
+        String newDescription = description != null && !description.trim().isEmpty() ? description : null;
+        if (productService.updateDescription(productId, newDescription, keywords)) {
             redirectAttributes.addFlashAttribute("success", "Product description updated successfully");
             return "redirect:/admin/products";
         }
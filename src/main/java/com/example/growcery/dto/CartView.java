@@ -0,0 +1,34 @@
+package com.example.growcery.dto;
+
+import com.example.growcery.model.CartItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A customer's cart with products attached and the total computed from the
+ * same load, so the cart page needs a single read.
+ */
+public class CartView {
+
+    private final List<CartItem> items;
+    private final BigDecimal total;
+
+    public CartView(List<CartItem> items, BigDecimal total) {
+        this.items = items;
+        this.total = total;
+    }
+
+    // Getters
+    public List<CartItem> getItems() {
+        return items;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.growcery.dto;
+
+import com.example.growcery.model.Order;
+
+/**
+ * Outcome of one customer's checkout inside a batch: either the placed order
+ * or the reason it was refused. One failed checkout never fails the others.
+ */
+public class CheckoutResult {
+
+    private final Order order;
+    private final String error;
+
+    private CheckoutResult(Order order, String error) {
+        this.order = order;
+        this.error = error;
+    }
+
+    public static CheckoutResult success(Order order) {
+        return new CheckoutResult(order, null);
+    }
+
+    public static CheckoutResult failure(String error) {
+        return new CheckoutResult(null, error);
+    }
+
+    // Getters
+    public Order getOrder() {
+        return order;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return order != null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.growcery.dto;
+
+import java.util.List;
+
+// One page of the admin customer listing, in id order
+public class CustomerPage {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final List<CustomerSummary> items;
+    private final int pageSize;
+    private final Long nextCursor;
+
+    public CustomerPage(List<CustomerSummary> items, int pageSize, Long nextCursor) {
+        this.items = items;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<CustomerSummary> getItems() {
+        return items;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    // Id of the last customer on this page, used as the seek key for the next one
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public static int clampPageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.growcery.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A customer row on the admin customers page with their successful orders,
+ * lifetime spend and last order date, grouped in the database.
+ */
+public class CustomerSummary {
+
+    private final Long id;
+    private final String username;
+    private final String address;
+    private final String mobileNumber;
+    private long orderCount;
+    private BigDecimal lifetimeSpend;
+    private LocalDateTime lastOrderDate;
+
+    // Used by the grouped JPQL constructor expression in UserRepository
+    public CustomerSummary(Long id, String username, String address, String mobileNumber,
+                           Long orderCount, BigDecimal lifetimeSpend, LocalDateTime lastOrderDate) {
+        this.id = id;
+        this.username = username;
+        this.address = address;
+        this.mobileNumber = mobileNumber;
+        this.orderCount = orderCount != null ? orderCount : 0;
+        this.lifetimeSpend = lifetimeSpend != null ? lifetimeSpend : BigDecimal.ZERO;
+        this.lastOrderDate = lastOrderDate;
+    }
+
+    // Order totals only, as grouped from the archive in ArchivedOrderRepository
+    public CustomerSummary(Long id, Long orderCount, BigDecimal lifetimeSpend, LocalDateTime lastOrderDate) {
+        this(id, null, null, null, orderCount, lifetimeSpend, lastOrderDate);
+    }
+
+    public void addOrders(CustomerSummary other) {
+        orderCount += other.orderCount;
+        lifetimeSpend = lifetimeSpend.add(other.lifetimeSpend);
+        if (lastOrderDate == null || (other.lastOrderDate != null && other.lastOrderDate.isAfter(lastOrderDate))) {
+            lastOrderDate = other.lastOrderDate;
+        }
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getMobileNumber() {
+        return mobileNumber;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public BigDecimal getLifetimeSpend() {
+        return lifetimeSpend;
+    }
+
+    public LocalDateTime getLastOrderDate() {
+        return lastOrderDate;
+    }
+}
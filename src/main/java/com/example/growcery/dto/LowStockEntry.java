@@ -0,0 +1,52 @@
+package com.example.growcery.dto;
+
+// A product on the low-stock watch list, as shown on the admin dashboard
+public class LowStockEntry {
+
+    private final Long productId;
+    private final String productName;
+    private final int stock;
+    private final double unitsPerDay;
+    private final double daysOfCover;
+    private final boolean critical;
+
+    public LowStockEntry(Long productId, String productName, int stock, double unitsPerDay, double daysOfCover,
+                         boolean critical) {
+        this.productId = productId;
+        this.productName = productName;
+        this.stock = stock;
+        this.unitsPerDay = unitsPerDay;
+        this.daysOfCover = daysOfCover;
+        this.critical = critical;
+    }
+
+    // Getters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public double getUnitsPerDay() {
+        return unitsPerDay;
+    }
+
+    // How long the stock lasts at the recent sales rate; infinite for products that have not sold lately
+    public double getDaysOfCover() {
+        return daysOfCover;
+    }
+
+    public boolean isSelling() {
+        return unitsPerDay > 0;
+    }
+
+    public boolean isCritical() {
+        return critical;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.growcery.dto;
+
+import com.example.growcery.model.Order;
+import com.example.growcery.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One order line joined with its order, as written by the admin export. Built
+ * by JPQL constructor expressions, so streamed rows never enter the
+ * persistence context.
+ */
+public class OrderLineExport {
+
+    public static final List<String> COLUMNS = List.of("order_id", "order_date", "customer_id", "status",
+            "order_total", "product_id", "product_name", "product_category", "quantity", "price", "line_total");
+
+    private final Long orderId;
+    private final LocalDateTime orderDate;
+    private final Long customerId;
+    private final Order.OrderStatus status;
+    private final BigDecimal orderTotal;
+    private final Long productId;
+    private final String productName;
+    private final Product.Category productCategory;
+    private final Integer quantity;
+    private final BigDecimal price;
+
+    public OrderLineExport(Long orderId, LocalDateTime orderDate, Long customerId, Order.OrderStatus status,
+                           BigDecimal orderTotal, Long productId, String productName,
+                           Product.Category productCategory, Integer quantity, BigDecimal price) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.customerId = customerId;
+        this.status = status;
+        this.orderTotal = orderTotal;
+        this.productId = productId;
+        this.productName = productName;
+        this.productCategory = productCategory;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    // Getters
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getOrderTotal() {
+        return orderTotal;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Product.Category getProductCategory() {
+        return productCategory;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    // Values in COLUMNS order
+    public List<Object> values() {
+        BigDecimal lineTotal = price != null && quantity != null ? price.multiply(BigDecimal.valueOf(quantity)) : null;
+        return Arrays.asList(orderId, orderDate, customerId, status, orderTotal, productId, productName,
+                productCategory, quantity, price, lineTotal);
+    }
+}
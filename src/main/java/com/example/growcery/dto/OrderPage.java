@@ -0,0 +1,47 @@
+package com.example.growcery.dto;
+
+import com.example.growcery.model.Order;
+
+import java.util.List;
+
+// One page of order history, newest first
+public class OrderPage {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final List<Order> items;
+    private final int pageSize;
+    private final Long nextCursor;
+
+    public OrderPage(List<Order> items, int pageSize, Long nextCursor) {
+        this.items = items;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<Order> getItems() {
+        return items;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    // Id of the last order on this page, used as the seek key for the next one
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public static int clampPageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
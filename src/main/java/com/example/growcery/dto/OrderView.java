@@ -0,0 +1,57 @@
+package com.example.growcery.dto;
+
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import com.example.growcery.model.User;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * An order with its lines, as shown on the order detail pages. Once the order
+ * is SUCCESSFUL or FAILED the view can never change, so it is cached and
+ * served with a strong ETag.
+ */
+public class OrderView {
+
+    private final Order order;
+    private final List<OrderItem> items;
+
+    public OrderView(Order order, List<OrderItem> items) {
+        this.order = order;
+        this.items = List.copyOf(items);
+    }
+
+    // Getters
+    public Order getOrder() {
+        return order;
+    }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    public boolean isFinalized() {
+        return order.getStatus() != Order.OrderStatus.PENDING;
+    }
+
+    /**
+     * Strong ETag for this view as rendered in one session. The page also shows
+     * the signed-in user and the session's CSRF token, so the session is part of
+     * the tag (hashed, never the raw id).
+     */
+    public String etagFor(String sessionId) {
+        return etagFor(sessionId, null);
+    }
+
+    // The admin page also shows the customer's contact details, which change without the order changing
+    public String etagFor(String sessionId, User customer) {
+        String source = order.getId() + ":" + order.getStatus() + ":" + sessionId;
+        if (customer != null) {
+            source += ":" + customer.getId() + ":" + customer.getUsername() + ":" + customer.getAddress()
+                    + ":" + customer.getMobileNumber();
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
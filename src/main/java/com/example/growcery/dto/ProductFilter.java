@@ -0,0 +1,115 @@
+package com.example.growcery.dto;
+
+import com.example.growcery.model.Product;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public class ProductFilter {
+
+    private final Set<Product.Category> categories = EnumSet.noneOf(Product.Category.class);
+    private final Set<PriceRange> priceRanges = EnumSet.noneOf(PriceRange.class);
+    private final Set<String> tags = new LinkedHashSet<>();
+    private boolean inStockOnly;
+
+    public static ProductFilter inStock() {
+        return new ProductFilter().withInStockOnly(true);
+    }
+
+    public ProductFilter withCategory(Product.Category category) {
+        if (category != null) {
+            categories.add(category);
+        }
+        return this;
+    }
+
+    public ProductFilter withPriceRange(PriceRange priceRange) {
+        if (priceRange != null) {
+            priceRanges.add(priceRange);
+        }
+        return this;
+    }
+
+    public ProductFilter withTag(String tag) {
+        if (tag != null && !tag.isBlank()) {
+            tags.add(tag.trim().toLowerCase(Locale.ROOT));
+        }
+        return this;
+    }
+
+    public ProductFilter withInStockOnly(boolean inStockOnly) {
+        this.inStockOnly = inStockOnly;
+        return this;
+    }
+
+    // Getters
+    public Set<Product.Category> getCategories() {
+        return categories;
+    }
+
+    public Set<PriceRange> getPriceRanges() {
+        return priceRanges;
+    }
+
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    public boolean isInStockOnly() {
+        return inStockOnly;
+    }
+
+    // True when the filter needs more than the category column the database pages on
+    public boolean hasFacetsBeyondCategory() {
+        return inStockOnly || !priceRanges.isEmpty() || !tags.isEmpty() || categories.size() > 1;
+    }
+
+    public enum PriceRange {
+        UNDER_1("Under $1", null, "1"),
+        FROM_1_TO_5("$1 - $5", "1", "5"),
+        FROM_5_TO_10("$5 - $10", "5", "10"),
+        FROM_10_TO_20("$10 - $20", "10", "20"),
+        OVER_20("$20 and above", "20", null);
+
+        private final String label;
+        private final BigDecimal min;
+        private final BigDecimal max;
+
+        PriceRange(String label, String min, String max) {
+            this.label = label;
+            this.min = min != null ? new BigDecimal(min) : null;
+            this.max = max != null ? new BigDecimal(max) : null;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static PriceRange of(BigDecimal price) {
+            if (price == null) {
+                return null;
+            }
+            for (PriceRange range : values()) {
+                if ((range.min == null || price.compareTo(range.min) >= 0)
+                        && (range.max == null || price.compareTo(range.max) < 0)) {
+                    return range;
+                }
+            }
+            return null;
+        }
+
+        public static PriceRange fromParam(String value) {
+            if (value != null) {
+                for (PriceRange range : values()) {
+                    if (range.name().equalsIgnoreCase(value)) {
+                        return range;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
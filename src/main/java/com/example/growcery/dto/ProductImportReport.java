@@ -0,0 +1,90 @@
+package com.example.growcery.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress and outcome of one bulk product import. Counters are updated after
+ * every batch, so a report read while the import runs shows how far it got.
+ */
+public class ProductImportReport {
+
+    private final String id;
+    private final String fileName;
+    private final LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long rowsRead;
+    private volatile long created;
+    private volatile long updated;
+    private volatile long rejected;
+    private volatile String failure;
+
+    public ProductImportReport(String id, String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    // Set when the file could not be read to the end
+    public String getFailure() {
+        return failure;
+    }
+
+    public boolean isRunning() {
+        return finishedAt == null;
+    }
+
+    // Only the importing thread writes, so plain increments are enough
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void applied(long created, long updated) {
+        this.created += created;
+        this.updated += updated;
+    }
+
+    public void rowRejected() {
+        rejected++;
+    }
+
+    public void fail(String failure) {
+        this.failure = failure;
+    }
+
+    public void finish() {
+        finishedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.growcery.dto;
+
+import com.example.growcery.model.Product;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+public class ProductPage {
+
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final List<Product> items;
+    private final SortField sort;
+    private final int pageSize;
+    private final String nextCursor;
+
+    public ProductPage(List<Product> items, SortField sort, int pageSize, String nextCursor) {
+        this.items = items;
+        this.sort = sort;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<Product> getItems() {
+        return items;
+    }
+
+    public SortField getSort() {
+        return sort;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    // Sort key and id of the last product on this page, used as the seek key for the next one
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public static int clampPageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Cursor token for the page that follows last. It carries the sort key
+     * itself, so the next page seeks from where this one ended even if that
+     * product has been edited or deleted since.
+     */
+    public static String cursorAfter(SortField sort, Product last) {
+        String key = switch (sort) {
+            case NAME -> last.getName();
+            case PRICE -> last.getPrice().toPlainString();
+            case STOCK -> String.valueOf(last.getStock());
+            case ID -> "";
+        };
+        String token = sort.name() + ":" + last.getId() + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Seek key from a cursor token, as a product with only the id and sort field set; empty when
+    // the token is malformed or was cut for another sort, which starts over from the first page
+    public static Optional<Product> parseCursor(SortField sort, String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                return Optional.empty();
+            }
+            Product last = new Product();
+            last.setId(Long.valueOf(parts[1]));
+            switch (sort) {
+                case NAME -> last.setName(parts[2]);
+                case PRICE -> last.setPrice(new BigDecimal(parts[2]));
+                case STOCK -> last.setStock(Integer.valueOf(parts[2]));
+                case ID -> { }
+            }
+            return Optional.of(last);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public enum SortField {
+        ID("id"), NAME("name"), PRICE("price"), STOCK("stock");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static SortField fromParam(String value) {
+            if (value != null) {
+                for (SortField field : values()) {
+                    if (field.name().equalsIgnoreCase(value)) {
+                        return field;
+                    }
+                }
+            }
+            return ID;
+        }
+    }
+}
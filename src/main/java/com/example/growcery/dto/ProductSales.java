@@ -0,0 +1,40 @@
+package com.example.growcery.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Units sold and revenue for one product, as rolled up from successful order
+ * lines. The name is the one snapshotted on the order lines.
+ */
+public class ProductSales {
+
+    private final Long productId;
+    private final String productName;
+    private final long units;
+    private final BigDecimal revenue;
+
+    // Used by the JPQL constructor expressions in OrderRepository and ArchivedOrderRepository
+    public ProductSales(Long productId, String productName, Long units, BigDecimal revenue) {
+        this.productId = productId;
+        this.productName = productName;
+        this.units = units != null ? units : 0;
+        this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+    }
+
+    // Getters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.growcery.dto;
+
+import com.example.growcery.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Read model for product list views: everything a listing row shows and none of
+ * the TEXT columns, so listings never pull descriptions out of MySQL.
+ */
+public class ProductSummary {
+
+    private final Long id;
+    private final String name;
+    private final Product.Category category;
+    private final BigDecimal price;
+    private final Integer stock;
+
+    // Used by the JPQL constructor expressions in ProductRepository
+    public ProductSummary(Long id, String name, Product.Category category, BigDecimal price, Integer stock) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.price = price;
+        this.stock = stock;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Product.Category getCategory() {
+        return category;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public static ProductSummary fromEntity(Product product) {
+        return new ProductSummary(
+            product.getId(),
+            product.getName(),
+            product.getCategory(),
+            product.getPrice(),
+            product.getStock()
+        );
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.growcery.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An ad-hoc sales report over a date range. The range is scanned in chunks by
+ * background workers; progress is the share of chunks done, and the merged rows
+ * are kept once the job finishes so the report can be viewed and downloaded again.
+ */
+public class ReportJob {
+
+    public enum Type {
+        CATEGORY("Revenue by category", "category"),
+        PRODUCT("Revenue by product", "product"),
+        CUSTOMER("Revenue by customer", "customer");
+
+        private final String title;
+        private final String groupName;
+
+        Type(String title, String groupName) {
+            this.title = title;
+            this.groupName = groupName;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getGroupName() {
+            return groupName;
+        }
+    }
+
+    public enum Status {
+        RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final Type type;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int chunks;
+    private final AtomicInteger chunksDone = new AtomicInteger();
+    private final LocalDateTime createdAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile String error;
+    private volatile List<ReportRow> rows = List.of();
+
+    public ReportJob(String id, Type type, LocalDate from, LocalDate to, int chunks) {
+        this.id = id;
+        this.type = type;
+        this.from = from;
+        this.to = to;
+        this.chunks = chunks;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // First day of the report
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    // Last day of the report, inclusive
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public List<ReportRow> getRows() {
+        return rows;
+    }
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    public int getProgressPercent() {
+        return chunks == 0 ? 100 : chunksDone.get() * 100 / chunks;
+    }
+
+    public BigDecimal getTotalRevenue() {
+        return rows.stream().map(ReportRow::getRevenue).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public void chunkDone() {
+        chunksDone.incrementAndGet();
+    }
+
+    public void complete(List<ReportRow> rows) {
+        this.rows = rows;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.DONE;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+}
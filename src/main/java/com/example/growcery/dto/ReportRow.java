@@ -0,0 +1,72 @@
+package com.example.growcery.dto;
+
+import com.example.growcery.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * One group of an ad-hoc sales report: a category, product or customer with
+ * its orders, units and revenue. Report jobs build partial rows per date chunk
+ * and add them together.
+ */
+public class ReportRow {
+
+    private final String key;
+    private String label;
+    private long orders;
+    private long units;
+    private BigDecimal revenue;
+
+    // Used by the grouped JPQL constructor expressions in OrderRepository and ArchivedOrderRepository
+    public ReportRow(Product.Category category, Long orders, Long units, BigDecimal revenue) {
+        this(category != null ? category.name() : "UNCATEGORIZED",
+                category != null ? category.name() : "Uncategorized", orders, units, revenue);
+    }
+
+    public ReportRow(Long id, String label, Long orders, Long units, BigDecimal revenue) {
+        this(String.valueOf(id), label, orders, units, revenue);
+    }
+
+    private ReportRow(String key, String label, Long orders, Long units, BigDecimal revenue) {
+        this.key = key;
+        this.label = label;
+        this.orders = orders != null ? orders : 0;
+        this.units = units != null ? units : 0;
+        this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+    }
+
+    public void add(ReportRow other) {
+        orders += other.orders;
+        units += other.units;
+        revenue = revenue.add(other.revenue);
+        if ((label == null || label.isEmpty()) && other.label != null) {
+            label = other.label;
+        }
+    }
+
+    // Getters
+    public String getKey() {
+        return key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    // Setters
+    public void setLabel(String label) {
+        this.label = label;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.growcery.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Point-in-time copy of the sales rollups shown on the admin dashboard.
+ */
+public class SalesSummary {
+
+    private final List<Bucket> revenueByDay;
+    private final List<Bucket> revenueByWeek;
+    private final List<Bucket> ordersByHour;
+    private final List<ProductSales> topProducts;
+    private final long orders;
+    private final long units;
+    private final BigDecimal revenue;
+    private final int windowDays;
+
+    public SalesSummary(List<Bucket> revenueByDay, List<Bucket> revenueByWeek, List<Bucket> ordersByHour,
+                        List<ProductSales> topProducts, long orders, long units, BigDecimal revenue,
+                        int windowDays) {
+        this.revenueByDay = revenueByDay;
+        this.revenueByWeek = revenueByWeek;
+        this.ordersByHour = ordersByHour;
+        this.topProducts = topProducts;
+        this.orders = orders;
+        this.units = units;
+        this.revenue = revenue;
+        this.windowDays = windowDays;
+    }
+
+    // Getters
+    public List<Bucket> getRevenueByDay() {
+        return revenueByDay;
+    }
+
+    public List<Bucket> getRevenueByWeek() {
+        return revenueByWeek;
+    }
+
+    public List<Bucket> getOrdersByHour() {
+        return ordersByHour;
+    }
+
+    public List<ProductSales> getTopProducts() {
+        return topProducts;
+    }
+
+    // Orders, units and revenue over the last windowDays days
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    // Average units per order over the window
+    public double getAverageBasketSize() {
+        return orders == 0 ? 0 : (double) units / orders;
+    }
+
+    public BigDecimal getAverageOrderValue() {
+        return orders == 0 ? BigDecimal.ZERO
+                : revenue.divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP);
+    }
+
+    // One labelled bucket of a time series; value is revenue or an order count
+    public static class Bucket {
+        private final String label;
+        private final BigDecimal value;
+        private final int percent;
+
+        public Bucket(String label, BigDecimal value, int percent) {
+            this.label = label;
+            this.value = value;
+            this.percent = percent;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public BigDecimal getValue() {
+            return value;
+        }
+
+        // Size relative to the largest bucket in the series, for drawing bars
+        public int getPercent() {
+            return percent;
+        }
+    }
+}
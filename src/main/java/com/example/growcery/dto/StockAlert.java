@@ -0,0 +1,30 @@
+package com.example.growcery.dto;
+
+import java.time.LocalDateTime;
+
+// Raised when a product crosses the low-stock threshold in either direction
+public class StockAlert {
+
+    private final LowStockEntry entry;
+    private final boolean recovered;
+    private final LocalDateTime raisedAt;
+
+    public StockAlert(LowStockEntry entry, boolean recovered, LocalDateTime raisedAt) {
+        this.entry = entry;
+        this.recovered = recovered;
+        this.raisedAt = raisedAt;
+    }
+
+    // Getters
+    public LowStockEntry getEntry() {
+        return entry;
+    }
+
+    public boolean isRecovered() {
+        return recovered;
+    }
+
+    public LocalDateTime getRaisedAt() {
+        return raisedAt;
+    }
+}
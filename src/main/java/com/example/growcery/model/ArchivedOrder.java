@@ -0,0 +1,75 @@
+package com.example.growcery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Cold copy of a finalized order, moved out of the orders table by the archiver
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_customer_date", columnList = "customer_id, order_date, id"),
+        @Index(name = "idx_orders_archive_date", columnList = "order_date, id")
+})
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "order_date")
+    private LocalDateTime orderDate;
+
+    @Column(name = "total_amount")
+    private BigDecimal totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    private Order.OrderStatus status;
+
+    @Column(name = "status_message")
+    private String statusMessage;
+
+    // Explicitly adding getters in addition to Lombok's @Data
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+
+    // Detached Order for the regular order views; never saved back
+    public Order toOrder() {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        order.setOrderDate(orderDate);
+        order.setTotalAmount(totalAmount);
+        order.setStatus(status);
+        order.setStatusMessage(statusMessage);
+        return order;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.growcery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Cold copy of an order line, archived together with its order
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "order_items_archive", indexes = @Index(name = "idx_order_items_archive_order", columnList = "order_id, id"))
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    private Integer quantity;
+
+    private BigDecimal price;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "product_category")
+    private Product.Category productCategory;
+
+    // Explicitly adding getters in addition to Lombok's @Data
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Product.Category getProductCategory() {
+        return productCategory;
+    }
+
+    // Detached OrderItem for the regular order views; never saved back
+    public OrderItem toOrderItem() {
+        OrderItem item = new OrderItem();
+        item.setId(id);
+        item.setOrderId(orderId);
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setPrice(price);
+        item.setProductName(productName);
+        item.setProductCategory(productCategory);
+        return item;
+    }
+}
@@ -15,11 +15,16 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_date", columnList = "customer_id, order_date, id"),
+        @Index(name = "idx_orders_date", columnList = "order_date, id")
+})
 public class Order {
 
+    // Pooled ids (one round trip per 50 rows) so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "customer_id")
@@ -35,6 +40,10 @@ public class Order {
 
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.SUCCESSFUL;
+
+    // Why an asynchronous checkout ended up FAILED
+    @Column(name = "status_message")
+    private String statusMessage;
     
     @OneToMany(mappedBy = "orderId", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
@@ -85,6 +94,14 @@ public class Order {
         this.status = status;
     }
 
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+
+    public void setStatusMessage(String statusMessage) {
+        this.statusMessage = statusMessage;
+    }
+
     public List<OrderItem> getOrderItems() {
         return orderItems;
     }
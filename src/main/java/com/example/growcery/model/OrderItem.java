@@ -13,11 +13,13 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = @Index(name = "idx_order_items_order", columnList = "order_id, id"))
 public class OrderItem {
 
+    // Pooled ids (one round trip per 50 rows) so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_id")
@@ -35,9 +37,14 @@ public class OrderItem {
     @NotNull(message = "Price is required")
     private BigDecimal price;
     
-    // For convenience in the order view
-    @Transient
-    private Product product;
+    // Copied from the product at checkout so order pages never read the catalog
+    // and keep showing the line after the product is renamed or deleted
+    @Column(name = "product_name")
+    private String productName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "product_category")
+    private Product.Category productCategory;
     
     // Explicitly adding getters and setters in addition to Lombok's @Data
     
@@ -81,11 +88,26 @@ public class OrderItem {
         this.price = price;
     }
 
-    public Product getProduct() {
-        return product;
+    public String getProductName() {
+        return productName;
     }
 
-    public void setProduct(Product product) {
-        this.product = product;
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Product.Category getProductCategory() {
+        return productCategory;
+    }
+
+    public void setProductCategory(Product.Category productCategory) {
+        this.productCategory = productCategory;
+    }
+
+    // Copies the product details an order line has to keep
+    public void snapshot(Product product) {
+        this.productId = product.getId();
+        this.productName = product.getName();
+        this.productCategory = product.getCategory();
     }
 }
\ No newline at end of file
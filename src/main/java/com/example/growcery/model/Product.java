@@ -8,7 +8,12 @@ import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name", columnList = "name, id"),
+        @Index(name = "idx_products_price", columnList = "price, id"),
+        @Index(name = "idx_products_stock", columnList = "stock, id"),
+        @Index(name = "idx_products_category", columnList = "category, id")
+})
 public class Product {
 
     @Id
@@ -11,7 +11,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+// Admin customer listing filters on role and seeks on id
+@Table(name = "users", indexes = @Index(name = "idx_users_role", columnList = "role, id"))
 public class User {
 
     @Id
@@ -0,0 +1,25 @@
+package com.example.growcery.repository;
+
+import com.example.growcery.model.ArchivedOrderItem;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+    List<ArchivedOrderItem> findByOrderId(Long orderId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO order_items_archive " +
+            "(id, order_id, product_id, quantity, price, product_name, product_category) " +
+            "SELECT id, order_id, product_id, quantity, price, product_name, product_category " +
+            "FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyFromOrderItems(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -0,0 +1,92 @@
+package com.example.growcery.repository;
+
+import com.example.growcery.dto.CustomerSummary;
+import com.example.growcery.dto.OrderLineExport;
+import com.example.growcery.dto.ProductSales;
+import com.example.growcery.dto.ReportRow;
+import com.example.growcery.model.ArchivedOrder;
+import com.example.growcery.model.Order;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    // Same keyset pages as OrderRepository, over the archive
+    List<ArchivedOrder> findByCustomerIdOrderByOrderDateDescIdDesc(Long customerId, Pageable pageable);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.customerId = :customerId " +
+           "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<ArchivedOrder> findCustomerPageBefore(@Param("customerId") Long customerId,
+                                               @Param("orderDate") LocalDateTime orderDate,
+                                               @Param("id") Long id, Pageable pageable);
+
+    List<ArchivedOrder> findAllByOrderByOrderDateDescIdDesc(Pageable pageable);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<ArchivedOrder> findPageBefore(@Param("orderDate") LocalDateTime orderDate, @Param("id") Long id,
+                                       Pageable pageable);
+
+    @Query("SELECT MAX(o.orderDate) FROM ArchivedOrder o")
+    LocalDateTime findNewestOrderDate();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.growcery.dto.OrderLineExport(o.id, o.orderDate, o.customerId, " +
+           "o.status, o.totalAmount, i.productId, i.productName, i.productCategory, i.quantity, i.price) " +
+           "FROM ArchivedOrder o, ArchivedOrderItem i WHERE i.orderId = o.id " +
+           "AND o.orderDate >= :from AND o.orderDate < :to ORDER BY o.orderDate, o.id, i.id")
+    Stream<OrderLineExport> streamLines(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.example.growcery.dto.ProductSales(i.productId, MAX(i.productName), SUM(i.quantity), " +
+           "SUM(i.price * i.quantity)) FROM ArchivedOrder o, ArchivedOrderItem i WHERE i.orderId = o.id AND o.status = :status " +
+           "AND o.orderDate < :before GROUP BY i.productId")
+    List<ProductSales> sumSalesByProduct(@Param("status") Order.OrderStatus status,
+                                         @Param("before") LocalDateTime before);
+
+    @Query("SELECT new com.example.growcery.dto.ReportRow(i.productCategory, COUNT(DISTINCT o.id), SUM(i.quantity), " +
+           "SUM(i.price * i.quantity)) FROM ArchivedOrder o, ArchivedOrderItem i WHERE i.orderId = o.id AND o.status = :status " +
+           "AND o.orderDate >= :from AND o.orderDate < :to GROUP BY i.productCategory")
+    List<ReportRow> sumReportByCategory(@Param("status") Order.OrderStatus status,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.example.growcery.dto.ReportRow(i.productId, MAX(i.productName), COUNT(DISTINCT o.id), " +
+           "SUM(i.quantity), SUM(i.price * i.quantity)) FROM ArchivedOrder o, ArchivedOrderItem i WHERE i.orderId = o.id " +
+           "AND o.status = :status AND o.orderDate >= :from AND o.orderDate < :to GROUP BY i.productId")
+    List<ReportRow> sumReportByProduct(@Param("status") Order.OrderStatus status,
+                                       @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.example.growcery.dto.ReportRow(o.customerId, '', COUNT(DISTINCT o.id), " +
+           "SUM(i.quantity), SUM(i.price * i.quantity)) FROM ArchivedOrder o, ArchivedOrderItem i WHERE i.orderId = o.id " +
+           "AND o.status = :status AND o.orderDate >= :from AND o.orderDate < :to GROUP BY o.customerId")
+    List<ReportRow> sumReportByCustomer(@Param("status") Order.OrderStatus status,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Archived order totals for one page of the admin customer listing
+    @Query("SELECT new com.example.growcery.dto.CustomerSummary(o.customerId, COUNT(o.id), SUM(o.totalAmount), " +
+           "MAX(o.orderDate)) FROM ArchivedOrder o WHERE o.customerId IN :ids AND o.status = :status " +
+           "GROUP BY o.customerId")
+    List<CustomerSummary> sumByCustomerIds(@Param("ids") Collection<Long> ids,
+                                           @Param("status") Order.OrderStatus status);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO orders_archive (id, customer_id, order_date, total_amount, status, status_message) " +
+            "SELECT id, customer_id, order_date, total_amount, status, status_message FROM orders WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyFromOrders(@Param("ids") Collection<Long> ids);
+}
@@ -4,6 +4,7 @@ import com.example.growcery.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +13,7 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByCustomerId(Long customerId);
     Optional<CartItem> findByCustomerIdAndProductId(Long customerId, Long productId);
     void deleteByCustomerId(Long customerId);
+    List<CartItem> findByCustomerIdIn(Collection<Long> customerIds);
+    void deleteByCustomerIdIn(Collection<Long> customerIds);
+    void deleteByCustomerIdAndProductIdIn(Long customerId, Collection<Long> productIds);
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.growcery.repository;
+
+import com.example.growcery.model.CheckoutRequest;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CheckoutRequestRepository extends JpaRepository<CheckoutRequest, String> {
+
+    // A plain INSERT so a second claim on the same key fails instead of merging into the first
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO checkout_requests (request_key, customer_id, created_at) " +
+            "VALUES (:requestKey, :customerId, :createdAt)", nativeQuery = true)
+    int claim(@Param("requestKey") String requestKey, @Param("customerId") Long customerId,
+              @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CheckoutRequest r SET r.orderId = :orderId WHERE r.requestKey = :requestKey")
+    int recordOrder(@Param("requestKey") String requestKey, @Param("orderId") Long orderId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CheckoutRequest r WHERE r.requestKey = :requestKey AND r.orderId IS NULL " +
+            "AND r.createdAt < :cutoff")
+    int deleteUnresolvedCreatedBefore(@Param("requestKey") String requestKey, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CheckoutRequest r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,9 @@
+package com.example.growcery.repository;
+
+import com.example.growcery.model.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+}
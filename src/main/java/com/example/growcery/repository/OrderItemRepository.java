@@ -1,12 +1,29 @@
 package com.example.growcery.repository;
 
 import com.example.growcery.model.OrderItem;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderId(Long orderId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE OrderItem i SET " +
+           "i.productName = (SELECT p.name FROM Product p WHERE p.id = i.productId), " +
+           "i.productCategory = (SELECT p.category FROM Product p WHERE p.id = i.productId) " +
+           "WHERE i.productName IS NULL AND EXISTS (SELECT p.id FROM Product p WHERE p.id = i.productId)")
+    int backfillProductSnapshots();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderItem i WHERE i.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
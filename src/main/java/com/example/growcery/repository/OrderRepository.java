@@ -1,13 +1,92 @@
 package com.example.growcery.repository;
 
+import com.example.growcery.dto.OrderLineExport;
+import com.example.growcery.dto.ProductSales;
+import com.example.growcery.dto.ReportRow;
 import com.example.growcery.model.Order;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerIdOrderByOrderDateDesc(Long customerId);
     List<Order> findAllByOrderByOrderDateDesc();
+    List<Order> findByStatus(Order.OrderStatus status);
+    boolean existsByCustomerIdAndStatus(Long customerId, Order.OrderStatus status);
+
+    // Keyset pages over (order_date, id), newest first; served by idx_orders_customer_date / idx_orders_date
+    List<Order> findByCustomerIdOrderByOrderDateDescIdDesc(Long customerId, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.customerId = :customerId " +
+           "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findCustomerPageBefore(@Param("customerId") Long customerId,
+                                       @Param("orderDate") LocalDateTime orderDate,
+                                       @Param("id") Long id, Pageable pageable);
+
+    List<Order> findAllByOrderByOrderDateDescIdDesc(Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findPageBefore(@Param("orderDate") LocalDateTime orderDate, @Param("id") Long id,
+                               Pageable pageable);
+
+    // Forward-only read for exports; the fetch size makes MySQL hand rows over through a cursor
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.growcery.dto.OrderLineExport(o.id, o.orderDate, o.customerId, " +
+           "o.status, o.totalAmount, i.productId, i.productName, i.productCategory, i.quantity, i.price) " +
+           "FROM Order o, OrderItem i WHERE i.orderId = o.id AND o.orderDate >= :from AND o.orderDate < :to " +
+           "ORDER BY o.orderDate, o.id, i.id")
+    Stream<OrderLineExport> streamLines(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Units and revenue per product over orders with the given status, for rebuilding the sales rollups
+    @Query("SELECT new com.example.growcery.dto.ProductSales(i.productId, MAX(i.productName), SUM(i.quantity), " +
+           "SUM(i.price * i.quantity)) FROM Order o, OrderItem i WHERE i.orderId = o.id AND o.status = :status " +
+           "AND o.orderDate < :before GROUP BY i.productId")
+    List<ProductSales> sumSalesByProduct(@Param("status") Order.OrderStatus status,
+                                         @Param("before") LocalDateTime before);
+
+    // Partial aggregates for one chunk of a report job: successful orders placed in [from, to), grouped by
+    // category, product or customer; the range condition is served by the order_date index
+    @Query("SELECT new com.example.growcery.dto.ReportRow(i.productCategory, COUNT(DISTINCT o.id), SUM(i.quantity), " +
+           "SUM(i.price * i.quantity)) FROM Order o, OrderItem i WHERE i.orderId = o.id AND o.status = :status " +
+           "AND o.orderDate >= :from AND o.orderDate < :to GROUP BY i.productCategory")
+    List<ReportRow> sumReportByCategory(@Param("status") Order.OrderStatus status,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.example.growcery.dto.ReportRow(i.productId, MAX(i.productName), COUNT(DISTINCT o.id), " +
+           "SUM(i.quantity), SUM(i.price * i.quantity)) FROM Order o, OrderItem i WHERE i.orderId = o.id " +
+           "AND o.status = :status AND o.orderDate >= :from AND o.orderDate < :to GROUP BY i.productId")
+    List<ReportRow> sumReportByProduct(@Param("status") Order.OrderStatus status,
+                                       @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.example.growcery.dto.ReportRow(o.customerId, '', COUNT(DISTINCT o.id), " +
+           "SUM(i.quantity), SUM(i.price * i.quantity)) FROM Order o, OrderItem i WHERE i.orderId = o.id " +
+           "AND o.status = :status AND o.orderDate >= :from AND o.orderDate < :to GROUP BY o.customerId")
+    List<ReportRow> sumReportByCustomer(@Param("status") Order.OrderStatus status,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Oldest finalized orders placed before the cutoff, for the archiver
+    @Query("SELECT o.id FROM Order o WHERE o.orderDate < :cutoff AND o.status <> :pending " +
+           "ORDER BY o.orderDate, o.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff,
+                                 @Param("pending") Order.OrderStatus pending, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,12 +1,90 @@
 package com.example.growcery.repository;
 
+import com.example.growcery.dto.ProductSummary;
 import com.example.growcery.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategory(Product.Category category);
-}
\ No newline at end of file
+
+    List<Product> findByNameIn(Collection<String> names);
+
+    @Query("SELECT new com.example.growcery.dto.ProductSummary(p.id, p.name, p.category, p.price, p.stock) " +
+           "FROM Product p ORDER BY p.id")
+    List<ProductSummary> findAllSummaries();
+
+    // Forward-only read for exports; callers detach each row once written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    @Query("SELECT new com.example.growcery.dto.ProductSummary(p.id, p.name, p.category, p.price, p.stock) " +
+           "FROM Product p WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Single conditional UPDATE: the row lock and the stock check happen together, so it can't oversell
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStockIfSufficient(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Same as above, but also leaves room for stock other carts hold reservations on
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id AND p.stock >= :required")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity,
+                                  @Param("required") int required);
+
+    // Applies stock already reserved elsewhere (hot inventory counters), so no sufficiency check
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id")
+    int subtractStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Writes only the text columns, so a concurrent stock change is never overwritten; null keeps the old value
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.productDescription = COALESCE(:description, p.productDescription), " +
+           "p.seoKeywords = COALESCE(:keywords, p.seoKeywords) WHERE p.id = :id")
+    int updateDescription(@Param("id") Long id, @Param("description") String description,
+                          @Param("keywords") String keywords);
+
+    // Keyset pagination: the first page is sorted by the pageable, later pages seek past (key, id)
+    @Query("SELECT p FROM Product p WHERE (:category IS NULL OR p.category = :category)")
+    List<Product> findFirstPage(@Param("category") Product.Category category, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE (:category IS NULL OR p.category = :category) " +
+           "AND p.id > :id ORDER BY p.id")
+    List<Product> findPageAfterId(@Param("category") Product.Category category,
+                                  @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE (:category IS NULL OR p.category = :category) " +
+           "AND (p.name > :name OR (p.name = :name AND p.id > :id)) ORDER BY p.name, p.id")
+    List<Product> findPageAfterName(@Param("category") Product.Category category,
+                                    @Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE (:category IS NULL OR p.category = :category) " +
+           "AND (p.price > :price OR (p.price = :price AND p.id > :id)) ORDER BY p.price, p.id")
+    List<Product> findPageAfterPrice(@Param("category") Product.Category category,
+                                     @Param("price") BigDecimal price, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE (:category IS NULL OR p.category = :category) " +
+           "AND (p.stock > :stock OR (p.stock = :stock AND p.id > :id)) ORDER BY p.stock, p.id")
+    List<Product> findPageAfterStock(@Param("category") Product.Category category,
+                                     @Param("stock") Integer stock, @Param("id") Long id, Pageable pageable);
+}
@@ -1,13 +1,31 @@
 package com.example.growcery.repository;
 
+import com.example.growcery.dto.CustomerSummary;
+import com.example.growcery.model.Order;
 import com.example.growcery.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
-}
\ No newline at end of file
+    long countByRole(User.Role role);
+
+    // Keyset page of users with one role and their order totals, grouped in one query; the role
+    // filter and id seek are served by idx_users_role, the order join by idx_orders_customer_date
+    @Query("SELECT new com.example.growcery.dto.CustomerSummary(u.id, u.username, u.address, u.mobileNumber, " +
+           "COUNT(o.id), SUM(o.totalAmount), MAX(o.orderDate)) " +
+           "FROM User u LEFT JOIN Order o ON o.customerId = u.id AND o.status = :status " +
+           "WHERE u.role = :role AND u.id > :after AND (:prefix IS NULL OR u.username LIKE :prefix ESCAPE '!') " +
+           "GROUP BY u.id, u.username, u.address, u.mobileNumber ORDER BY u.id")
+    List<CustomerSummary> findSummariesAfter(@Param("role") User.Role role, @Param("status") Order.OrderStatus status,
+                                             @Param("after") Long after, @Param("prefix") String prefix,
+                                             Pageable pageable);
+}
@@ -1,5 +1,6 @@
 package com.example.growcery.service;
 
+import com.example.growcery.dto.ProductFilter;
 import com.example.growcery.model.CartItem;
 import com.example.growcery.model.Order;
 import com.example.growcery.model.Product;
@@ -48,9 +49,7 @@ public class AIAgentService {
         memory.add("User asked for recommendations for: " + situation);
         
         // Step 2: Get available products
-        List<Product> availableProducts = productService.getAllProducts().stream()
-                .filter(product -> product.getStock() > 0)
-                .collect(Collectors.toList());
+        List<Product> availableProducts = productService.filterProducts(ProductFilter.inStock()).getProducts();
         
         // Step 3: Get AI recommendations
         List<String> recommendedProducts = geminiService.getRecommendedProductNames(situation, availableProducts);
@@ -128,7 +127,10 @@ public class AIAgentService {
             }
             
             // Add to cart with the specified quantity
-            cartService.addToCart(userId, product.getId(), quantity);
+            if (!cartService.addToCart(userId, product.getId(), quantity)) {
+                memory.add("Not enough stock to add: " + product.getName() + " (Quantity: " + quantity + ")");
+                continue;
+            }
             memory.add("Added to cart: " + product.getName() + " (Quantity: " + quantity + ")");
             
             // Log the quantity for debugging
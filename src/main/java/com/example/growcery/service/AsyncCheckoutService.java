@@ -0,0 +1,91 @@
+package com.example.growcery.service;
+
+import com.example.growcery.model.Order;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous checkout: the request thread only records a PENDING order and
+ * a bounded pool of workers turns it into a SUCCESSFUL or FAILED one. Bursts
+ * queue up here instead of holding Tomcat threads and pool connections.
+ */
+@Service
+public class AsyncCheckoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncCheckoutService.class);
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final ThreadPoolExecutor workers;
+
+    public AsyncCheckoutService(OrderService orderService,
+                                @Value("${growcery.checkout.async:false}") boolean enabled,
+                                @Value("${growcery.checkout.workers:4}") int workerCount,
+                                @Value("${growcery.checkout.queue-capacity:500}") int queueCapacity) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "checkout-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Order submitCheckout(Long customerId) {
+        Order order = orderService.createPendingOrder(customerId);
+        enqueue(order.getId());
+        return order;
+    }
+
+    // Orders left PENDING by a restart are picked up again
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingOrders() {
+        if (!enabled) {
+            return;
+        }
+        for (Order order : orderService.getPendingOrders()) {
+            enqueue(order.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void enqueue(Long orderId) {
+        try {
+            workers.execute(() -> process(orderId));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Checkout queue full, failing order {}", orderId);
+            orderService.failPendingOrder(orderId, "Checkout is busy, please try again");
+        }
+    }
+
+    private void process(Long orderId) {
+        try {
+            orderService.completePendingOrder(orderId);
+        } catch (RuntimeException e) {
+            logger.info("Pending order {} failed: {}", orderId, e.getMessage());
+            orderService.failPendingOrder(orderId, e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.growcery.service;
 
+import com.example.growcery.dto.CartView;
 import com.example.growcery.model.CartItem;
 import com.example.growcery.model.Product;
 import com.example.growcery.repository.CartItemRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class CartService {
@@ -22,24 +28,52 @@ public class CartService {
     }
 
     public List<CartItem> getCartItemsByCustomerId(Long customerId) {
+        return getCartView(customerId).getItems();
+    }
+
+    // Raw cart lines without product details, for callers that load products themselves
+    public List<CartItem> getCartLines(Long customerId) {
+        return cartItemRepository.findByCustomerId(customerId);
+    }
+
+    // Cart lines of several customers in one query, grouped by customer
+    public Map<Long, List<CartItem>> getCartLines(Collection<Long> customerIds) {
+        return cartItemRepository.findByCustomerIdIn(customerIds).stream()
+                .collect(Collectors.groupingBy(CartItem::getCustomerId));
+    }
+
+    public CartView getCartView(Long customerId) {
         List<CartItem> cartItems = cartItemRepository.findByCustomerId(customerId);
         
-        // Fetch product details for each cart item
+        // Fetch product details for all cart items in one batch
+        Map<Long, Product> products = productService.getProductsByIds(
+                cartItems.stream().map(CartItem::getProductId).collect(Collectors.toSet()));
+        
+        BigDecimal total = BigDecimal.ZERO;
         for (CartItem cartItem : cartItems) {
-            productService.getProductById(cartItem.getProductId())
-                    .ifPresent(cartItem::setProduct);
+            Product product = products.get(cartItem.getProductId());
+            cartItem.setProduct(product);
+            if (product != null) {
+                total = total.add(product.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+            }
         }
         
-        return cartItems;
+        return new CartView(cartItems, total);
     }
 
     @Transactional
-    public void addToCart(Long customerId, Long productId, Integer quantity) {
+    public boolean addToCart(Long customerId, Long productId, Integer quantity) {
         Optional<CartItem> existingItem = cartItemRepository.findByCustomerIdAndProductId(customerId, productId);
+        int newQuantity = existingItem.map(item -> item.getQuantity() + quantity).orElse(quantity);
+        
+        // Hold the stock for this cart line before adding it
+        if (!productService.reserveStock(customerId, productId, newQuantity)) {
+            return false;
+        }
         
         if (existingItem.isPresent()) {
             CartItem cartItem = existingItem.get();
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
+            cartItem.setQuantity(newQuantity);
             cartItemRepository.save(cartItem);
         } else {
             CartItem cartItem = new CartItem();
@@ -48,6 +82,7 @@ public class CartService {
             cartItem.setQuantity(quantity);
             cartItemRepository.save(cartItem);
         }
+        return true;
     }
 
     public boolean updateCartItemQuantity(Long cartItemId, Integer quantity) {
@@ -55,8 +90,8 @@ public class CartService {
         if (optionalCartItem.isPresent()) {
             CartItem cartItem = optionalCartItem.get();
             
-            // Check if the product has enough stock
-            if (productService.checkStock(cartItem.getProductId(), quantity)) {
+            // Resize the reservation; fails if there isn't enough unreserved stock
+            if (productService.reserveStock(cartItem.getCustomerId(), cartItem.getProductId(), quantity)) {
                 cartItem.setQuantity(quantity);
                 cartItemRepository.save(cartItem);
                 return true;
@@ -66,36 +101,54 @@ public class CartService {
     }
 
     public void removeFromCart(Long cartItemId) {
-        cartItemRepository.deleteById(cartItemId);
+        cartItemRepository.findById(cartItemId).ifPresent(cartItem -> {
+            cartItemRepository.delete(cartItem);
+            afterCommit(() -> productService.releaseReservation(cartItem.getCustomerId(), cartItem.getProductId()));
+        });
     }
 
     @Transactional
     public void clearCart(Long customerId) {
         cartItemRepository.deleteByCustomerId(customerId);
+        afterCommit(() -> productService.releaseReservations(customerId));
     }
 
-    public BigDecimal calculateCartTotal(Long customerId) {
-        List<CartItem> cartItems = getCartItemsByCustomerId(customerId);
-        return cartItems.stream()
-                .map(item -> {
-                    Product product = item.getProduct();
-                    if (product != null) {
-                        return product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-                    }
-                    return BigDecimal.ZERO;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // Drops just these products, e.g. the ones an order has just gone through for
+    @Transactional
+    public void removeProducts(Long customerId, Collection<Long> productIds) {
+        cartItemRepository.deleteByCustomerIdAndProductIdIn(customerId, productIds);
+        afterCommit(() -> {
+            for (Long productId : productIds) {
+                productService.releaseReservation(customerId, productId);
+            }
+        });
     }
 
-    public boolean validateCartStock(Long customerId) {
-        List<CartItem> cartItems = cartItemRepository.findByCustomerId(customerId);
-        
-        for (CartItem item : cartItems) {
-            if (!productService.checkStock(item.getProductId(), item.getQuantity())) {
-                return false;
+    @Transactional
+    public void clearCarts(Collection<Long> customerIds) {
+        cartItemRepository.deleteByCustomerIdIn(customerIds);
+        afterCommit(() -> {
+            for (Long customerId : customerIds) {
+                productService.releaseReservations(customerId);
             }
+        });
+    }
+
+    public BigDecimal calculateCartTotal(Long customerId) {
+        return getCartView(customerId).getTotal();
+    }
+
+    // Holds go once the cart lines are gone for good; a rolled back checkout keeps both
+    private static void afterCommit(Runnable release) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
         }
-        
-        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.CheckoutResult;
+import com.example.growcery.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for checkouts. Requests that arrive within a few milliseconds of
+ * each other are handed to OrderService as one batch, so a burst pays for one
+ * transaction and one stock update per product instead of one per order. Each
+ * caller still gets its own order or its own error. When a batch cannot be
+ * applied as a whole its requests are retried one at a time.
+ */
+@Service
+public class CheckoutBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutBatcher.class);
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public CheckoutBatcher(OrderService orderService,
+                           @Value("${growcery.checkout.batching:false}") boolean enabled,
+                           @Value("${growcery.checkout.batch-size:32}") int maxBatchSize,
+                           @Value("${growcery.checkout.batch-wait-ms:5}") long maxWaitMillis) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatch, "checkout-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Places the customer's order, sharing a transaction with concurrent checkouts when batching is on
+    public Order checkout(Long customerId) {
+        if (!running) {
+            return orderService.createOrderFromCart(customerId);
+        }
+
+        Request request = new Request(customerId);
+        queue.add(request);
+        // shutdown() may have drained the queue between the check above and the add; whoever
+        // takes the request off the queue completes it, so only one left behind needs failing
+        if (!running && queue.remove(request)) {
+            request.result.complete(CheckoutResult.failure("Checkout is busy, please try again"));
+        }
+        CheckoutResult result = request.result.join();
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getError());
+        }
+        return result.getOrder();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        failQueued();
+    }
+
+    private void dispatch() {
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+        try {
+            collectAndProcess(batch);
+        } finally {
+            // Whatever ended the loop, nothing is left to take requests off the queue; requests
+            // of a batch cut short by an error are failed too, completed ones stay as they are
+            running = false;
+            for (Request request : batch) {
+                request.result.complete(CheckoutResult.failure("Checkout is busy, please try again"));
+            }
+            failQueued();
+        }
+    }
+
+    private void collectAndProcess(List<Request> batch) {
+        while (running) {
+            try {
+                batch.add(queue.take());
+                // Keep collecting until the batch is full or the first request has waited long enough
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    Request next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                process(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void failQueued() {
+        Request request;
+        while ((request = queue.poll()) != null) {
+            request.result.complete(CheckoutResult.failure("Checkout is busy, please try again"));
+        }
+    }
+
+    private void process(List<Request> batch) {
+        if (batch.size() == 1) {
+            processAlone(batch.get(0));
+            return;
+        }
+
+        List<Long> customerIds = new ArrayList<>(batch.size());
+        for (Request request : batch) {
+            customerIds.add(request.customerId);
+        }
+        try {
+            List<CheckoutResult> results = orderService.createOrdersFromCarts(customerIds);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            // Stock moved under the batch (e.g. a concurrent non-batched checkout); nothing was written
+            logger.info("Checkout batch of {} rolled back, retrying one by one: {}", batch.size(), e.getMessage());
+            for (Request request : batch) {
+                processAlone(request);
+            }
+        }
+    }
+
+    private void processAlone(Request request) {
+        try {
+            request.result.complete(CheckoutResult.success(orderService.createOrderFromCart(request.customerId)));
+        } catch (RuntimeException e) {
+            request.result.complete(CheckoutResult.failure(e.getMessage()));
+        }
+    }
+
+    private static final class Request {
+        private final Long customerId;
+        private final CompletableFuture<CheckoutResult> result = new CompletableFuture<>();
+
+        private Request(Long customerId) {
+            this.customerId = customerId;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.growcery.service;
+
+import com.example.growcery.model.CheckoutRequest;
+import com.example.growcery.model.Order;
+import com.example.growcery.repository.CheckoutRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Makes checkout idempotent per request key. The key is claimed with a plain
+ * insert before the checkout runs and points at the order once it went
+ * through, so a double submit or a browser retry gets the existing order from
+ * a primary key lookup instead of running checkout again. A checkout that fails
+ * gives its key back so the customer can retry with it. The claim and the order
+ * are not committed together, so a claim still without an order after the claim
+ * timeout (the server died mid-checkout) is taken as abandoned and reclaimed.
+ */
+@Service
+public class CheckoutRequestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutRequestService.class);
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_WAIT_POLLS = 50;
+    private static final long POLL_MILLIS = 100;
+
+    private final CheckoutRequestRepository checkoutRequestRepository;
+    private final OrderService orderService;
+    private final long keyTtlHours;
+    private final long claimTimeoutSeconds;
+
+    public CheckoutRequestService(CheckoutRequestRepository checkoutRequestRepository, OrderService orderService,
+                                  @Value("${growcery.checkout.request-key-ttl-hours:24}") long keyTtlHours,
+                                  @Value("${growcery.checkout.request-claim-timeout-seconds:60}") long claimTimeoutSeconds) {
+        this.checkoutRequestRepository = checkoutRequestRepository;
+        this.orderService = orderService;
+        this.keyTtlHours = keyTtlHours;
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+    }
+
+    public Order placeOnce(String requestKey, Long customerId, Supplier<Order> checkout) {
+        if (requestKey == null || requestKey.isBlank() || requestKey.length() > MAX_KEY_LENGTH) {
+            return checkout.get();
+        }
+
+        for (int poll = 0; poll < MAX_WAIT_POLLS; poll++) {
+            Optional<CheckoutRequest> existing = checkoutRequestRepository.findById(requestKey);
+            if (existing.isPresent()) {
+                CheckoutRequest request = existing.get();
+                if (!request.getCustomerId().equals(customerId)) {
+                    throw new RuntimeException("Invalid checkout request");
+                }
+                if (request.getOrderId() != null) {
+                    return orderService.getOrderById(request.getOrderId())
+                            .orElseThrow(() -> new RuntimeException("Order not found"));
+                }
+                LocalDateTime cutoff = LocalDateTime.now().minusSeconds(claimTimeoutSeconds);
+                if (request.getCreatedAt().isBefore(cutoff)) {
+                    // Only one submit gets to delete it, then they race for a fresh claim
+                    if (checkoutRequestRepository.deleteUnresolvedCreatedBefore(requestKey, cutoff) > 0) {
+                        logger.warn("Reclaiming abandoned checkout request key for customer {}", customerId);
+                    }
+                    continue;
+                }
+                // The first submit is still checking out
+                pause();
+                continue;
+            }
+
+            try {
+                checkoutRequestRepository.claim(requestKey, customerId, LocalDateTime.now());
+            } catch (DataIntegrityViolationException e) {
+                // Another submit with the same key claimed it first
+                continue;
+            }
+
+            Order order;
+            try {
+                order = checkout.get();
+            } catch (RuntimeException e) {
+                checkoutRequestRepository.deleteById(requestKey);
+                throw e;
+            }
+            checkoutRequestRepository.recordOrder(requestKey, order.getId());
+            return order;
+        }
+        throw new RuntimeException("Your order is still being placed, please check your orders");
+    }
+
+    @Scheduled(fixedDelayString = "${growcery.checkout.request-key-purge-ms:3600000}")
+    public void purgeExpiredKeys() {
+        int purged = checkoutRequestRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(keyTtlHours));
+        if (purged > 0) {
+            logger.info("Purged {} expired checkout request keys", purged);
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Checkout was interrupted");
+        }
+    }
+}
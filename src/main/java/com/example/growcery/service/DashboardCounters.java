@@ -0,0 +1,109 @@
+package com.example.growcery.service;
+
+import com.example.growcery.model.User;
+import com.example.growcery.repository.ArchivedOrderRepository;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.ProductRepository;
+import com.example.growcery.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running totals for the admin dashboard. Registration, product changes and
+ * checkout adjust them as they commit, so the dashboard reads three numbers
+ * instead of loading the tables. A periodic COUNT brings them back in line
+ * with the database in case anything changed it behind our back.
+ */
+@Service
+public class DashboardCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardCounters.class);
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    private final AtomicLong products = new AtomicLong();
+    private final AtomicLong customers = new AtomicLong();
+    private final AtomicLong orders = new AtomicLong();
+
+    public DashboardCounters(ProductRepository productRepository, UserRepository userRepository,
+                             OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository) {
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${growcery.dashboard.reconcile-ms:300000}",
+            fixedDelayString = "${growcery.dashboard.reconcile-ms:300000}")
+    public void reconcile() {
+        long productCount = productRepository.count();
+        long customerCount = userRepository.countByRole(User.Role.CUSTOMER);
+        // Archived orders still count, they only moved tables
+        long orderCount = orderRepository.count() + archivedOrderRepository.count();
+
+        long driftProducts = productCount - products.getAndSet(productCount);
+        long driftCustomers = customerCount - customers.getAndSet(customerCount);
+        long driftOrders = orderCount - orders.getAndSet(orderCount);
+        if (driftProducts != 0 || driftCustomers != 0 || driftOrders != 0) {
+            logger.debug("Dashboard counters reconciled: products {}, customers {}, orders {}",
+                    driftProducts, driftCustomers, driftOrders);
+        }
+    }
+
+    public long getProductsCount() {
+        return products.get();
+    }
+
+    public long getCustomersCount() {
+        return customers.get();
+    }
+
+    public long getOrdersCount() {
+        return orders.get();
+    }
+
+    public void productsAdded(long count) {
+        add(products, count);
+    }
+
+    public void productRemoved() {
+        add(products, -1);
+    }
+
+    public void customerRegistered() {
+        add(customers, 1);
+    }
+
+    public void ordersPlaced(long count) {
+        add(orders, count);
+    }
+
+    // Only committed changes count; a rolled back checkout must not move the totals
+    private static void add(AtomicLong counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.addAndGet(delta);
+                }
+            });
+        } else {
+            counter.addAndGet(delta);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.OrderLineExport;
+import com.example.growcery.model.Product;
+import com.example.growcery.repository.ArchivedOrderRepository;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams admin exports straight from a database cursor to the response, one
+ * row at a time, so an export of any size runs in constant memory.
+ */
+@Service
+public class ExportService {
+
+    public static final List<String> PRODUCT_COLUMNS = List.of("id", "name", "category", "price", "stock",
+            "seo_keywords", "product_description");
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                         ProductRepository productRepository, EntityManager entityManager,
+                         ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"), JSONL("application/x-ndjson", "jsonl");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromParam(String value) {
+            return "jsonl".equalsIgnoreCase(value) ? JSONL : CSV;
+        }
+    }
+
+    // Order lines placed in [from, to), archived ones first since they are the oldest
+    @Transactional
+    public long writeOrderLines(LocalDateTime from, LocalDateTime to, Format format, Writer out) throws IOException {
+        RowWriter rows = new RowWriter(format, OrderLineExport.COLUMNS, out);
+        // One cursor at a time on the connection
+        try (Stream<OrderLineExport> archived = archivedOrderRepository.streamLines(from, to)) {
+            archived.forEach(line -> rows.write(line.values()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        try (Stream<OrderLineExport> hot = orderRepository.streamLines(from, to)) {
+            hot.forEach(line -> rows.write(line.values()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        return rows.count;
+    }
+
+    @Transactional
+    public long writeProducts(Format format, Writer out) throws IOException {
+        RowWriter rows = new RowWriter(format, PRODUCT_COLUMNS, out);
+        try (Stream<Product> products = productRepository.streamAll()) {
+            products.forEach(product -> {
+                rows.write(Arrays.asList(product.getId(), product.getName(), product.getCategory(),
+                        product.getPrice(), product.getStock(), product.getSeoKeywords(),
+                        product.getProductDescription()));
+                // Keep the persistence context from growing with the export
+                entityManager.detach(product);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        return rows.count;
+    }
+
+    private final class RowWriter {
+        private final Format format;
+        private final List<String> columns;
+        private final Writer out;
+        private long count;
+
+        private RowWriter(Format format, List<String> columns, Writer out) throws IOException {
+            this.format = format;
+            this.columns = columns;
+            this.out = out;
+            if (format == Format.CSV) {
+                out.write(String.join(",", columns));
+                out.write("\n");
+            }
+        }
+
+        private void write(List<Object> values) {
+            try {
+                if (format == Format.CSV) {
+                    for (int i = 0; i < values.size(); i++) {
+                        if (i > 0) {
+                            out.write(',');
+                        }
+                        out.write(csv(values.get(i)));
+                    }
+                } else {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 0; i < columns.size(); i++) {
+                        Object value = values.get(i);
+                        // Dates and enums as plain strings: the application's ObjectMapper is the plain one from
+                        // RestConfig, which replaces Boot's and so has no java.time module registered
+                        row.put(columns.get(i), value instanceof TemporalAccessor || value instanceof Enum<?>
+                                ? value.toString() : value);
+                    }
+                    out.write(objectMapper.writeValueAsString(row));
+                }
+                out.write("\n");
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // RFC 4180 quoting: only fields with separators, quotes or line breaks are quoted
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.growcery.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory stock for products flagged as hot (flash-sale items). Each product's
+ * stock is split across striped counters so concurrent checkouts decrement
+ * different slots instead of queueing on the products row. Committed sales are
+ * accumulated as pending deltas that ProductService flushes to MySQL in the
+ * background. A flagged product is only served from here once its counters were
+ * loaded from the database; until then it falls back to the normal row update.
+ */
+@Component
+public class HotInventory {
+
+    private final Set<Long> hotProductIds;
+    private final int stripes;
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    public HotInventory(@Value("${growcery.inventory.hot-products:}") Set<Long> hotProductIds,
+                        @Value("${growcery.inventory.stripes:8}") int stripes) {
+        this.hotProductIds = Collections.unmodifiableSet(new LinkedHashSet<>(hotProductIds));
+        this.stripes = Math.max(1, stripes);
+    }
+
+    public Set<Long> getHotProductIds() {
+        return hotProductIds;
+    }
+
+    public boolean isActive(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    // Loads a hot product's counters from its current database stock
+    public void load(Long productId, int stock) {
+        if (hotProductIds.contains(productId)) {
+            counters.put(productId, new Counter(stripes, stock));
+        }
+    }
+
+    /**
+     * Moves a loaded product's counters by an explicit stock edit of delta units.
+     * The counter itself is kept, so sales still owed to the database and units
+     * taken by checkouts that have not finished stay accounted for.
+     */
+    public void adjust(Long productId, int delta) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            return;
+        }
+        if (delta > 0) {
+            counter.give(delta);
+        } else if (delta < 0) {
+            counter.remove(-delta);
+        }
+    }
+
+    public void remove(Long productId) {
+        counters.remove(productId);
+    }
+
+    public int available(Long productId) {
+        Counter counter = counters.get(productId);
+        return counter != null ? counter.available() : 0;
+    }
+
+    public boolean tryTake(Long productId, int quantity) {
+        Counter counter = counters.get(productId);
+        return counter != null && counter.tryTake(quantity);
+    }
+
+    // Returns units taken by a checkout that did not commit
+    public void release(Long productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            counter.give(quantity);
+        }
+    }
+
+    // Records units whose checkout committed; they are owed to the database
+    public void commit(Long productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            counter.pending.add(quantity);
+        }
+    }
+
+    // Takes and clears the deltas owed to the database, by product id
+    public Map<Long, Integer> drainPending() {
+        Map<Long, Integer> drained = new HashMap<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            int delta = (int) entry.getValue().pending.sumThenReset();
+            if (delta != 0) {
+                drained.put(entry.getKey(), delta);
+            }
+        }
+        return drained;
+    }
+
+    private static final class Counter {
+        private final AtomicIntegerArray slots;
+        private final LongAdder pending = new LongAdder();
+
+        private Counter(int stripes, int stock) {
+            slots = new AtomicIntegerArray(stripes);
+            int share = Math.max(stock, 0) / stripes;
+            int remainder = Math.max(stock, 0) % stripes;
+            for (int i = 0; i < stripes; i++) {
+                slots.set(i, share + (i < remainder ? 1 : 0));
+            }
+        }
+
+        private int available() {
+            int total = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                total += slots.get(i);
+            }
+            return total;
+        }
+
+        private boolean tryTake(int quantity) {
+            if (quantity <= 0) {
+                return true;
+            }
+            // Start at a random slot so threads spread out, then sweep the others
+            int start = ThreadLocalRandom.current().nextInt(slots.length());
+            int remaining = quantity;
+            int[] taken = new int[slots.length()];
+            for (int n = 0; n < slots.length() && remaining > 0; n++) {
+                int i = (start + n) % slots.length();
+                while (remaining > 0) {
+                    int current = slots.get(i);
+                    if (current <= 0) {
+                        break;
+                    }
+                    int take = Math.min(current, remaining);
+                    if (slots.compareAndSet(i, current, current - take)) {
+                        taken[i] += take;
+                        remaining -= take;
+                    }
+                }
+            }
+            if (remaining == 0) {
+                return true;
+            }
+            // Not enough across all slots: put back what we grabbed
+            for (int i = 0; i < taken.length; i++) {
+                if (taken[i] > 0) {
+                    slots.addAndGet(i, taken[i]);
+                }
+            }
+            return false;
+        }
+
+        private void give(int quantity) {
+            slots.addAndGet(ThreadLocalRandom.current().nextInt(slots.length()), quantity);
+        }
+
+        // Takes up to quantity units out; an edit below what was already sold just empties the slots
+        private void remove(int quantity) {
+            int remaining = quantity;
+            for (int i = 0; i < slots.length() && remaining > 0; i++) {
+                while (remaining > 0) {
+                    int current = slots.get(i);
+                    if (current <= 0) {
+                        break;
+                    }
+                    int take = Math.min(current, remaining);
+                    if (slots.compareAndSet(i, current, current - take)) {
+                        remaining -= take;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.LowStockEntry;
+import com.example.growcery.dto.ProductSummary;
+import com.example.growcery.dto.ReportRow;
+import com.example.growcery.dto.StockAlert;
+import com.example.growcery.model.Order;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps every product ordered by days of cover, its stock divided by how many
+ * units a day it sold lately, so the dashboard reads the most urgent products
+ * off the front of a sorted set. Stock changes move one product as they
+ * commit; sales rates and stock are recomputed from the tables now and then.
+ * Crossing the alert threshold in either direction raises an alert.
+ */
+@Service
+public class LowStockMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockMonitor.class);
+    private static final int MAX_ALERTS = 50;
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final HotInventory hotInventory;
+    private final int velocityDays;
+    private final double alertDays;
+    private final int watchListSize;
+
+    // Most urgent first; an entry is taken out before its sort key changes and put back after
+    private final TreeSet<Watched> byCover = new TreeSet<>(Comparator.comparingDouble(Watched::daysOfCover)
+            .thenComparingInt(watched -> watched.stock)
+            .thenComparing(watched -> watched.productId));
+    private final Map<Long, Watched> byId = new HashMap<>();
+    private final Deque<StockAlert> alerts = new ArrayDeque<>();
+    private boolean loaded;
+
+    public LowStockMonitor(ProductRepository productRepository, OrderRepository orderRepository,
+                           HotInventory hotInventory,
+                           @Value("${growcery.stock.velocity-days:14}") int velocityDays,
+                           @Value("${growcery.stock.alert-days:3}") double alertDays,
+                           @Value("${growcery.stock.watch-list-size:10}") int watchListSize) {
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.hotInventory = hotInventory;
+        this.velocityDays = Math.max(1, velocityDays);
+        this.alertDays = alertDays;
+        this.watchListSize = watchListSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${growcery.stock.refresh-ms:600000}",
+            fixedDelayString = "${growcery.stock.refresh-ms:600000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Long> unitsSold = new HashMap<>();
+        for (ReportRow row : orderRepository.sumReportByProduct(Order.OrderStatus.SUCCESSFUL,
+                now.minusDays(velocityDays), now)) {
+            unitsSold.put(Long.valueOf(row.getKey()), row.getUnits());
+        }
+        List<ProductSummary> products = productRepository.findAllSummaries();
+
+        synchronized (this) {
+            Map<Long, Watched> previous = new HashMap<>(byId);
+            byCover.clear();
+            byId.clear();
+            for (ProductSummary product : products) {
+                Watched watched = new Watched(product.getId());
+                watched.name = product.getName();
+                watched.stock = hotInventory.isActive(product.getId())
+                        ? hotInventory.available(product.getId()) : product.getStock();
+                watched.unitsPerDay = unitsSold.getOrDefault(product.getId(), 0L) / (double) velocityDays;
+                byId.put(watched.productId, watched);
+                byCover.add(watched);
+                // Products already watched keep their state so only real crossings raise alerts
+                Watched before = previous.get(watched.productId);
+                watched.critical = before != null && before.critical;
+                boolean critical = isCritical(watched);
+                if (loaded && critical != watched.critical) {
+                    raise(watched);
+                }
+                watched.critical = critical;
+            }
+            if (!loaded) {
+                loaded = true;
+                long critical = byId.values().stream().filter(watched -> watched.critical).count();
+                if (critical > 0) {
+                    logger.warn("{} products are below {} days of stock", critical, alertDays);
+                }
+            }
+        }
+    }
+
+    // The product's stock after a committed change; name is null when it did not change
+    public synchronized void stockChanged(Long productId, String name, int stock) {
+        Watched watched = byId.get(productId);
+        if (watched == null) {
+            watched = new Watched(productId);
+            byId.put(productId, watched);
+        } else {
+            byCover.remove(watched);
+        }
+        if (name != null) {
+            watched.name = name;
+        }
+        watched.stock = stock;
+        byCover.add(watched);
+
+        if (watched.critical != isCritical(watched)) {
+            raise(watched);
+            watched.critical = !watched.critical;
+        }
+    }
+
+    // Reads the stock under the monitor's lock, so of two racing updates the last one applies the newest value
+    public synchronized void stockChanged(Long productId, IntSupplier stock) {
+        stockChanged(productId, null, stock.getAsInt());
+    }
+
+    public synchronized void productRemoved(Long productId) {
+        Watched watched = byId.remove(productId);
+        if (watched != null) {
+            byCover.remove(watched);
+        }
+    }
+
+    // The products with the fewest days of stock left, most urgent first
+    public List<LowStockEntry> getWatchList() {
+        return getWatchList(watchListSize);
+    }
+
+    public synchronized List<LowStockEntry> getWatchList(int limit) {
+        List<LowStockEntry> entries = new ArrayList<>(Math.min(limit, byCover.size()));
+        Iterator<Watched> iterator = byCover.iterator();
+        while (iterator.hasNext() && entries.size() < limit) {
+            entries.add(iterator.next().toEntry());
+        }
+        return entries;
+    }
+
+    // Newest first
+    public synchronized List<StockAlert> getRecentAlerts() {
+        return new ArrayList<>(alerts);
+    }
+
+    public double getAlertDays() {
+        return alertDays;
+    }
+
+    private boolean isCritical(Watched watched) {
+        return watched.stock <= 0 || watched.daysOfCover() < alertDays;
+    }
+
+    private void raise(Watched watched) {
+        boolean recovered = watched.critical;
+        StockAlert alert = new StockAlert(watched.toEntry(!recovered), recovered, LocalDateTime.now());
+        alerts.addFirst(alert);
+        if (alerts.size() > MAX_ALERTS) {
+            alerts.removeLast();
+        }
+        if (recovered) {
+            logger.info("Stock recovered for product {} ({}): {} units", watched.productId, watched.name, watched.stock);
+        } else {
+            logger.warn("Low stock for product {} ({}): {} units, {} days of cover", watched.productId, watched.name,
+                    watched.stock, String.format("%.1f", watched.daysOfCover()));
+        }
+    }
+
+    private static final class Watched {
+        private final Long productId;
+        private String name;
+        private int stock;
+        private double unitsPerDay;
+        private boolean critical;
+
+        private Watched(Long productId) {
+            this.productId = productId;
+        }
+
+        private double daysOfCover() {
+            if (stock <= 0) {
+                return 0;
+            }
+            return unitsPerDay > 0 ? stock / unitsPerDay : Double.POSITIVE_INFINITY;
+        }
+
+        private LowStockEntry toEntry() {
+            return toEntry(critical);
+        }
+
+        private LowStockEntry toEntry(boolean critical) {
+            return new LowStockEntry(productId, name, stock, unitsPerDay, daysOfCover(), critical);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.CustomerSummary;
+import com.example.growcery.model.ArchivedOrder;
+import com.example.growcery.model.ArchivedOrderItem;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import com.example.growcery.repository.ArchivedOrderItemRepository;
+import com.example.growcery.repository.ArchivedOrderRepository;
+import com.example.growcery.repository.OrderItemRepository;
+import com.example.growcery.repository.OrderRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cold storage for finalized orders. Old orders and their lines are moved from
+ * orders/order_items into orders_archive/order_items_archive in small
+ * transactions, so the hot tables only hold the recent working set. OrderService
+ * reads through to here when an order or a history page is not in the hot tables.
+ */
+@Service
+public class OrderArchive {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    // Newest order date in the archive; history pages newer than this never touch it
+    private volatile LocalDateTime newestArchived;
+    private volatile boolean newestArchivedLoaded;
+
+    public OrderArchive(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                        ArchivedOrderRepository archivedOrderRepository,
+                        ArchivedOrderItemRepository archivedOrderItemRepository) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+    }
+
+    /**
+     * Moves up to chunkSize of the oldest finalized orders placed before the
+     * cutoff, with their lines, in one transaction. Returns how many were moved.
+     */
+    @Transactional
+    public int archiveChunk(LocalDateTime cutoff, int chunkSize) {
+        List<Long> ids = orderRepository.findArchivableIds(cutoff, Order.OrderStatus.PENDING,
+                PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        archivedOrderRepository.copyFromOrders(ids);
+        archivedOrderItemRepository.copyFromOrderItems(ids);
+        orderItemRepository.deleteByOrderIdIn(ids);
+        orderRepository.deleteByIdIn(ids);
+
+        // Raising the watermark early is harmless: it only makes history pages look at the archive sooner
+        newestArchived = archivedOrderRepository.findNewestOrderDate();
+        newestArchivedLoaded = true;
+        return ids.size();
+    }
+
+    public LocalDateTime getNewestArchivedDate() {
+        if (!newestArchivedLoaded) {
+            newestArchived = archivedOrderRepository.findNewestOrderDate();
+            newestArchivedLoaded = true;
+        }
+        return newestArchived;
+    }
+
+    public Optional<Order> findOrder(Long orderId) {
+        if (getNewestArchivedDate() == null) {
+            return Optional.empty();
+        }
+        return archivedOrderRepository.findById(orderId).map(ArchivedOrder::toOrder);
+    }
+
+    public List<OrderItem> findItems(Long orderId) {
+        return archivedOrderItemRepository.findByOrderId(orderId).stream()
+                .map(ArchivedOrderItem::toOrderItem)
+                .toList();
+    }
+
+    // Successful archived order totals for the given customers
+    public List<CustomerSummary> sumByCustomers(Collection<Long> customerIds) {
+        if (customerIds.isEmpty() || getNewestArchivedDate() == null) {
+            return List.of();
+        }
+        return archivedOrderRepository.sumByCustomerIds(customerIds, Order.OrderStatus.SUCCESSFUL);
+    }
+
+    // Archived orders after the cursor, newest first, for one customer or everyone when customerId is null
+    public List<Order> findPage(Long customerId, Order cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<ArchivedOrder> rows;
+        if (cursor == null) {
+            rows = customerId != null
+                    ? archivedOrderRepository.findByCustomerIdOrderByOrderDateDescIdDesc(customerId, pageable)
+                    : archivedOrderRepository.findAllByOrderByOrderDateDescIdDesc(pageable);
+        } else {
+            rows = customerId != null
+                    ? archivedOrderRepository.findCustomerPageBefore(customerId, cursor.getOrderDate(),
+                            cursor.getId(), pageable)
+                    : archivedOrderRepository.findPageBefore(cursor.getOrderDate(), cursor.getId(), pageable);
+        }
+        return rows.stream().map(ArchivedOrder::toOrder).toList();
+    }
+}
@@ -1,35 +1,84 @@
 package com.example.growcery.service;
 
+import com.example.growcery.dto.CheckoutResult;
+import com.example.growcery.dto.OrderPage;
+import com.example.growcery.dto.OrderView;
 import com.example.growcery.model.CartItem;
+import com.example.growcery.model.DataMigration;
 import com.example.growcery.model.Order;
 import com.example.growcery.model.OrderItem;
 import com.example.growcery.model.Product;
+import com.example.growcery.repository.DataMigrationRepository;
 import com.example.growcery.repository.OrderItemRepository;
 import com.example.growcery.repository.OrderRepository;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    // Length of orders.status_message
+    private static final int STATUS_MESSAGE_LENGTH = 255;
+    private static final String SNAPSHOT_BACKFILL = "order-item-product-snapshots";
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartService cartService;
     private final ProductService productService;
+    private final OrderViewCache orderViewCache;
+    private final OrderArchive orderArchive;
+    private final DashboardCounters dashboardCounters;
+    private final SalesRollups salesRollups;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final long archiveAfterDays;
+    private final int archiveChunkSize;
 
     public OrderService(OrderRepository orderRepository, 
                        OrderItemRepository orderItemRepository,
                        CartService cartService,
-                       ProductService productService) {
+                       ProductService productService,
+                       OrderViewCache orderViewCache,
+                       OrderArchive orderArchive,
+                       DashboardCounters dashboardCounters,
+                       SalesRollups salesRollups,
+                       DataMigrationRepository dataMigrationRepository,
+                       @Value("${growcery.orders.archive.after-days:365}") long archiveAfterDays,
+                       @Value("${growcery.orders.archive.chunk-size:500}") int archiveChunkSize) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.cartService = cartService;
         this.productService = productService;
+        this.orderViewCache = orderViewCache;
+        this.orderArchive = orderArchive;
+        this.dashboardCounters = dashboardCounters;
+        this.salesRollups = salesRollups;
+        this.dataMigrationRepository = dataMigrationRepository;
+        this.archiveAfterDays = archiveAfterDays;
+        this.archiveChunkSize = Math.max(1, archiveChunkSize);
     }
 
     public List<Order> getOrdersByCustomerId(Long customerId) {
@@ -40,67 +89,366 @@ public class OrderService {
         return orderRepository.findAllByOrderByOrderDateDesc();
     }
 
+    /**
+     * One page of order history, newest first, for one customer or for everyone
+     * when customerId is null. afterId is the last order of the previous page.
+     */
+    public OrderPage getOrderPage(Long customerId, Long afterId, Integer size) {
+        int pageSize = OrderPage.clampPageSize(size);
+        // Fetch one extra row to know whether there is a next page
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        Optional<Order> cursor = afterId != null ? getOrderById(afterId) : Optional.empty();
+        if (cursor.isPresent() && customerId != null && !customerId.equals(cursor.get().getCustomerId())) {
+            cursor = Optional.empty();
+        }
+
+        List<Order> rows;
+        if (cursor.isEmpty()) {
+            rows = customerId != null
+                    ? orderRepository.findByCustomerIdOrderByOrderDateDescIdDesc(customerId, limit)
+                    : orderRepository.findAllByOrderByOrderDateDescIdDesc(limit);
+        } else {
+            Order last = cursor.get();
+            rows = customerId != null
+                    ? orderRepository.findCustomerPageBefore(customerId, last.getOrderDate(), last.getId(), limit)
+                    : orderRepository.findPageBefore(last.getOrderDate(), last.getId(), limit);
+        }
+
+        // Archived orders are older than the hot ones (bar the odd order that sat in PENDING),
+        // so the archive is only read once the page reaches back to its newest order date
+        LocalDateTime newestArchived = orderArchive.getNewestArchivedDate();
+        if (newestArchived != null && (rows.size() <= pageSize
+                || !rows.get(rows.size() - 1).getOrderDate().isAfter(newestArchived))) {
+            List<Order> merged = new ArrayList<>(rows);
+            merged.addAll(orderArchive.findPage(customerId, cursor.orElse(null), pageSize + 1));
+            merged.sort(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed());
+            rows = merged.subList(0, Math.min(merged.size(), pageSize + 1));
+        }
+
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).getId();
+        }
+        return new OrderPage(rows, pageSize, nextCursor);
+    }
+
     public Optional<Order> getOrderById(Long orderId) {
-        return orderRepository.findById(orderId);
+        Optional<Order> order = orderRepository.findById(orderId);
+        return order.isPresent() ? order : orderArchive.findOrder(orderId);
+    }
+
+    // Finalized orders are served from the view cache; pending ones are always read fresh
+    public Optional<OrderView> getOrderView(Long orderId) {
+        OrderView cached = orderViewCache.get(orderId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<OrderView> view = orderRepository.findById(orderId)
+                .map(order -> new OrderView(order, orderItemRepository.findByOrderId(orderId)));
+        if (view.isEmpty()) {
+            view = orderArchive.findOrder(orderId)
+                    .map(order -> new OrderView(order, orderArchive.findItems(orderId)));
+        }
+        view.ifPresent(orderViewCache::put);
+        return view;
     }
 
+    // Order lines carry their own product snapshot, so this is a single read of order_items
     public List<OrderItem> getOrderItemsByOrderId(Long orderId) {
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
-        
-        // Fetch product details for each order item
-        for (OrderItem orderItem : orderItems) {
-            productService.getProductById(orderItem.getProductId())
-                    .ifPresent(orderItem::setProduct);
+        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+        return items.isEmpty() ? orderArchive.findItems(orderId) : items;
+    }
+
+    /**
+     * Moves finalized orders older than growcery.orders.archive.after-days into
+     * the archive tables, one chunk per transaction so checkouts never wait long
+     * on the archiver's locks. A non-positive age turns archiving off.
+     */
+    @Scheduled(initialDelayString = "${growcery.orders.archive.initial-delay-ms:60000}",
+               fixedDelayString = "${growcery.orders.archive.interval-ms:3600000}")
+    public void archiveOldOrders() {
+        if (archiveAfterDays <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+        int total = 0;
+        int moved;
+        do {
+            moved = orderArchive.archiveChunk(cutoff, archiveChunkSize);
+            total += moved;
+        } while (moved == archiveChunkSize);
+        if (total > 0) {
+            logger.info("Archived {} orders placed before {}", total, cutoff);
         }
-        
-        return orderItems;
+    }
+
+    // Lines written before the snapshot columns existed get them filled from the catalog, on the first start only;
+    // every line written since carries its snapshot, so later starts skip the unindexed scan
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOrderItemSnapshots() {
+        if (dataMigrationRepository.existsById(SNAPSHOT_BACKFILL)) {
+            return;
+        }
+        int updated = orderItemRepository.backfillProductSnapshots();
+        dataMigrationRepository.save(new DataMigration(SNAPSHOT_BACKFILL, LocalDateTime.now()));
+        logger.info("Backfilled product snapshots on {} order items", updated);
     }
 
     @Transactional
     public Order createOrderFromCart(Long customerId) {
-        // Validate cart stock first
-        if (!cartService.validateCartStock(customerId)) {
-            throw new RuntimeException("Some products in your cart are out of stock");
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        Order placed = fulfilFromCart(order);
+        dashboardCounters.ordersPlaced(1);
+        return placed;
+    }
+
+    /**
+     * Checks out several carts in one transaction. Each customer is planned in
+     * turn against the stock left by the ones before, exactly as if they had
+     * checked out one after another; refused carts get a failure result and stay
+     * untouched. The accepted ones then cost one order insert batch, one item
+     * insert batch and a single stock decrement per product. Results are in the
+     * same order as the customer ids. Throws if a decrement does not apply, in
+     * which case nothing in the batch was written.
+     */
+    @Transactional
+    public List<CheckoutResult> createOrdersFromCarts(List<Long> customerIds) {
+        Map<Long, List<CartItem>> carts = cartService.getCartLines(new LinkedHashSet<>(customerIds));
+        Set<Long> productIds = new TreeSet<>();
+        carts.values().forEach(lines -> lines.forEach(line -> productIds.add(line.getProductId())));
+        Map<Long, Product> products = productService.getProductsByIds(productIds);
+
+        // Stock nobody holds; a customer may also use whatever they hold themselves
+        Map<Long, Integer> free = new HashMap<>();
+        for (Long productId : productIds) {
+            free.put(productId, productService.getAvailableStock(productId));
         }
 
-        List<CartItem> cartItems = cartService.getCartItemsByCustomerId(customerId);
+        List<CheckoutResult> results = new ArrayList<>(customerIds.size());
+        Map<Long, Order> accepted = new LinkedHashMap<>();
+        Map<Long, Integer> consumed = new TreeMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Long customerId : customerIds) {
+            List<CartItem> cartItems = carts.getOrDefault(customerId, List.of());
+            if (cartItems.isEmpty() || accepted.containsKey(customerId)) {
+                results.add(CheckoutResult.failure("Cart is empty"));
+                continue;
+            }
+
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            boolean fits = true;
+            for (CartItem cartItem : cartItems) {
+                Product product = products.get(cartItem.getProductId());
+                int own = productService.getReservedStock(cartItem.getProductId(), customerId);
+                if (product == null || cartItem.getQuantity() > free.get(cartItem.getProductId()) + own) {
+                    fits = false;
+                    break;
+                }
+                totalAmount = totalAmount.add(product.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+            }
+            if (!fits) {
+                results.add(CheckoutResult.failure("Some products in your cart are out of stock"));
+                continue;
+            }
+
+            for (CartItem cartItem : cartItems) {
+                int own = productService.getReservedStock(cartItem.getProductId(), customerId);
+                free.merge(cartItem.getProductId(), own - cartItem.getQuantity(), Integer::sum);
+                consumed.merge(cartItem.getProductId(), cartItem.getQuantity(), Integer::sum);
+            }
+
+            Order order = new Order();
+            order.setCustomerId(customerId);
+            order.setOrderDate(now);
+            order.setTotalAmount(totalAmount);
+            order.setStatus(Order.OrderStatus.SUCCESSFUL);
+            accepted.put(customerId, order);
+            results.add(CheckoutResult.success(order));
+        }
+
+        if (accepted.isEmpty()) {
+            return results;
+        }
+        orderRepository.saveAll(accepted.values());
+        dashboardCounters.ordersPlaced(accepted.size());
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (Order order : accepted.values()) {
+            List<OrderItem> lines = new ArrayList<>();
+            for (CartItem cartItem : carts.get(order.getCustomerId())) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrderId(order.getId());
+                orderItem.snapshot(products.get(cartItem.getProductId()));
+                orderItem.setQuantity(cartItem.getQuantity());
+                orderItem.setPrice(products.get(cartItem.getProductId()).getPrice());
+                lines.add(orderItem);
+            }
+            orderItems.addAll(lines);
+            salesRollups.record(order, lines);
+        }
+        orderItemRepository.saveAll(orderItems);
+
+        // One decrement per product, in id order like the single checkout
+        for (Map.Entry<Long, Integer> entry : consumed.entrySet()) {
+            if (!productService.consumeReservations(entry.getKey(), entry.getValue(), accepted.keySet())) {
+                throw new RuntimeException("Some products in your cart are out of stock");
+            }
+        }
+
+        cartService.clearCarts(accepted.keySet());
+        return results;
+    }
+
+    /**
+     * Records the order as PENDING together with its lines, priced as the cart
+     * stands now. completePendingOrder later takes stock for exactly those
+     * lines, whatever happens to the cart in the meantime.
+     */
+    @Transactional
+    public Order createPendingOrder(Long customerId) {
+        List<CartItem> cartItems = cartService.getCartLines(customerId);
         
         if (cartItems.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
+        // The same cart would otherwise be ordered twice
+        if (orderRepository.existsByCustomerIdAndStatus(customerId, Order.OrderStatus.PENDING)) {
+            throw new RuntimeException("Your previous order is still being placed");
+        }
 
-        // Create a new order
+        List<OrderItem> orderItems = orderLines(cartItems);
         Order order = new Order();
         order.setCustomerId(customerId);
         order.setOrderDate(LocalDateTime.now());
-        order.setTotalAmount(cartService.calculateCartTotal(customerId));
+        order.setTotalAmount(total(orderItems));
+        order.setStatus(Order.OrderStatus.PENDING);
+        Order saved = orderRepository.save(order);
+        orderItems.forEach(orderItem -> orderItem.setOrderId(saved.getId()));
+        orderItemRepository.saveAll(orderItems);
+        dashboardCounters.ordersPlaced(1);
+        return saved;
+    }
+
+    @Transactional
+    public Order completePendingOrder(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (order.getStatus() != Order.OrderStatus.PENDING) {
+            return order;
+        }
+        List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
+        if (orderItems.isEmpty()) {
+            // Queued before pending orders recorded their lines
+            return fulfilFromCart(order);
+        }
+
+        consumeStock(order.getCustomerId(), orderItems);
         order.setStatus(Order.OrderStatus.SUCCESSFUL);
-        
         Order savedOrder = orderRepository.save(order);
+        salesRollups.record(savedOrder, orderItems);
 
-        // Create order items from cart items
-        for (CartItem cartItem : cartItems) {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrderId(savedOrder.getId());
-            orderItem.setProductId(cartItem.getProductId());
-            orderItem.setQuantity(cartItem.getQuantity());
-            
-            // Get product price
-            Optional<Product> optionalProduct = productService.getProductById(cartItem.getProductId());
-            if (optionalProduct.isPresent()) {
-                Product product = optionalProduct.get();
-                orderItem.setPrice(product.getPrice());
-                
-                // Update product stock
-                productService.updateStock(product.getId(), cartItem.getQuantity());
+        // Only the ordered products leave the cart; anything added since stays
+        cartService.removeProducts(order.getCustomerId(),
+                orderItems.stream().map(OrderItem::getProductId).collect(Collectors.toSet()));
+        return savedOrder;
+    }
+
+    @Transactional
+    public void failPendingOrder(Long orderId, String reason) {
+        orderRepository.findById(orderId).ifPresent(order -> {
+            if (order.getStatus() == Order.OrderStatus.PENDING) {
+                order.setStatus(Order.OrderStatus.FAILED);
+                order.setStatusMessage(statusMessage(reason));
+                orderRepository.save(order);
             }
-            
-            orderItemRepository.save(orderItem);
+        });
+    }
+
+    public List<Order> getPendingOrders() {
+        return orderRepository.findByStatus(Order.OrderStatus.PENDING);
+    }
+
+    // Fits whatever the failure said into the status_message column
+    private static String statusMessage(String reason) {
+        if (reason == null || reason.isBlank()) {
+            return "Checkout failed, please try again";
+        }
+        return reason.length() > STATUS_MESSAGE_LENGTH
+                ? reason.substring(0, STATUS_MESSAGE_LENGTH - 3) + "..." : reason;
+    }
+
+    private Order fulfilFromCart(Order order) {
+        Long customerId = order.getCustomerId();
+        List<CartItem> cartItems = cartService.getCartLines(customerId);
+        
+        if (cartItems.isEmpty()) {
+            throw new RuntimeException("Cart is empty");
         }
 
+        List<OrderItem> orderItems = orderLines(cartItems);
+
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(LocalDateTime.now());
+        }
+        order.setTotalAmount(total(orderItems));
+        order.setStatus(Order.OrderStatus.SUCCESSFUL);
+        
+        Order savedOrder = orderRepository.save(order);
+
+        consumeStock(customerId, orderItems);
+        orderItems.forEach(orderItem -> orderItem.setOrderId(savedOrder.getId()));
+        orderItemRepository.saveAll(orderItems);
+        salesRollups.record(savedOrder, orderItems);
+
         // Clear the cart
         cartService.clearCart(customerId);
 
         return savedOrder;
     }
-}
\ No newline at end of file
+
+    // Prices every line from one batched product read, in product id order
+    private List<OrderItem> orderLines(List<CartItem> cartItems) {
+        Map<Long, Product> products = productService.getProductsByIds(
+                cartItems.stream().map(CartItem::getProductId).collect(Collectors.toSet()));
+
+        List<CartItem> byProduct = new ArrayList<>(cartItems);
+        byProduct.sort(Comparator.comparing(CartItem::getProductId));
+        List<OrderItem> orderItems = new ArrayList<>(cartItems.size());
+        for (CartItem cartItem : byProduct) {
+            Product product = products.get(cartItem.getProductId());
+            if (product == null || product.getStock() < cartItem.getQuantity()) {
+                throw new RuntimeException("Some products in your cart are out of stock");
+            }
+            OrderItem orderItem = new OrderItem();
+            orderItem.snapshot(product);
+            orderItem.setQuantity(cartItem.getQuantity());
+            orderItem.setPrice(product.getPrice());
+            orderItems.add(orderItem);
+        }
+        return orderItems;
+    }
+
+    private static BigDecimal total(List<OrderItem> orderItems) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItem orderItem : orderItems) {
+            totalAmount = totalAmount.add(orderItem.getPrice().multiply(BigDecimal.valueOf(orderItem.getQuantity())));
+        }
+        return totalAmount;
+    }
+
+    // Decrement in product id order so concurrent checkouts take row locks in the same order;
+    // a failed decrement rolls back the whole order
+    private void consumeStock(Long customerId, List<OrderItem> orderItems) {
+        List<OrderItem> byProduct = new ArrayList<>(orderItems);
+        byProduct.sort(Comparator.comparing(OrderItem::getProductId));
+        for (OrderItem orderItem : byProduct) {
+            if (!productService.consumeReservation(customerId, orderItem.getProductId(), orderItem.getQuantity())) {
+                throw new RuntimeException("Some products in your cart are out of stock");
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.OrderView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of finalized order views keyed by order id. Finalized orders are
+ * immutable, so entries never go stale and are only ever evicted for space.
+ */
+@Component
+public class OrderViewCache {
+
+    private final Map<Long, OrderView> views;
+
+    public OrderViewCache(@Value("${growcery.orders.view-cache-size:2000}") int maxEntries) {
+        this.views = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, OrderView> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized OrderView get(Long orderId) {
+        return views.get(orderId);
+    }
+
+    public synchronized void put(OrderView view) {
+        if (view.isFinalized()) {
+            views.put(view.getOrder().getId(), view);
+        }
+    }
+
+    public synchronized void evict(Long orderId) {
+        views.remove(orderId);
+    }
+}
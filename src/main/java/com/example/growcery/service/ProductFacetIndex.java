@@ -0,0 +1,209 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.ProductFilter;
+import com.example.growcery.model.Product;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-facet bitsets over one catalog snapshot. Bit i stands for the i-th product
+ * of the snapshot, so a combined filter is a handful of word-wise ANDs and the
+ * facet counts come from the same masks. Only the in-stock facet changes between
+ * snapshots; it is swapped copy-on-write so readers never see a half-updated set.
+ */
+public final class ProductFacetIndex {
+
+    private static final int MAX_TAG_COUNTS = 20;
+
+    private final List<Product> products;
+    private final Map<Long, Integer> positions;
+    private final BitSet all;
+    private final Map<Product.Category, BitSet> categories = new EnumMap<>(Product.Category.class);
+    private final Map<ProductFilter.PriceRange, BitSet> priceRanges = new EnumMap<>(ProductFilter.PriceRange.class);
+    private final Map<String, BitSet> tags = new HashMap<>();
+    private volatile BitSet inStock;
+
+    ProductFacetIndex(List<Product> products) {
+        this.products = products;
+        this.positions = new HashMap<>(products.size() * 2);
+        this.all = new BitSet(products.size());
+        BitSet stocked = new BitSet(products.size());
+
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            positions.put(product.getId(), i);
+            all.set(i);
+            if (product.getCategory() != null) {
+                categories.computeIfAbsent(product.getCategory(), c -> new BitSet()).set(i);
+            }
+            ProductFilter.PriceRange range = ProductFilter.PriceRange.of(product.getPrice());
+            if (range != null) {
+                priceRanges.computeIfAbsent(range, r -> new BitSet()).set(i);
+            }
+            for (String tag : tagsOf(product)) {
+                tags.computeIfAbsent(tag, t -> new BitSet()).set(i);
+            }
+            if (product.getStock() != null && product.getStock() > 0) {
+                stocked.set(i);
+            }
+        }
+        this.inStock = stocked;
+    }
+
+    synchronized void updateStock(Long productId, int stock) {
+        Integer position = positions.get(productId);
+        if (position == null) {
+            return;
+        }
+        BitSet current = inStock;
+        if (current.get(position) == stock > 0) {
+            return;
+        }
+        BitSet updated = (BitSet) current.clone();
+        updated.set(position, stock > 0);
+        inStock = updated;
+    }
+
+    public Result filter(ProductFilter filter) {
+        BitSet stocked = inStock;
+        BitSet categoryMask = union(categories, filter.getCategories());
+        BitSet priceMask = union(priceRanges, filter.getPriceRanges());
+        BitSet tagMask = union(tags, filter.getTags());
+        BitSet stockMask = filter.isInStockOnly() ? stocked : all;
+
+        // Each facet is counted against every other active facet but not itself,
+        // so the user can see what widening that one facet would return
+        BitSet withoutCategory = and(priceMask, tagMask, stockMask);
+        BitSet withoutPrice = and(categoryMask, tagMask, stockMask);
+        BitSet withoutTag = and(categoryMask, priceMask, stockMask);
+        BitSet withoutStock = and(categoryMask, priceMask, tagMask);
+
+        BitSet matches = and(withoutCategory, categoryMask);
+        List<Product> matching = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            matching.add(products.get(i));
+        }
+
+        Map<Product.Category, Integer> categoryCounts = new EnumMap<>(Product.Category.class);
+        for (Product.Category category : Product.Category.values()) {
+            categoryCounts.put(category, intersectionSize(categories.get(category), withoutCategory));
+        }
+        Map<ProductFilter.PriceRange, Integer> priceCounts = new EnumMap<>(ProductFilter.PriceRange.class);
+        for (ProductFilter.PriceRange range : ProductFilter.PriceRange.values()) {
+            priceCounts.put(range, intersectionSize(priceRanges.get(range), withoutPrice));
+        }
+
+        List<Map.Entry<String, Integer>> tagEntries = new ArrayList<>();
+        for (Map.Entry<String, BitSet> entry : tags.entrySet()) {
+            int count = intersectionSize(entry.getValue(), withoutTag);
+            if (count > 0) {
+                tagEntries.add(Map.entry(entry.getKey(), count));
+            }
+        }
+        tagEntries.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> tagCounts = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : tagEntries.subList(0, Math.min(MAX_TAG_COUNTS, tagEntries.size()))) {
+            tagCounts.put(entry.getKey(), entry.getValue());
+        }
+
+        return new Result(Collections.unmodifiableList(matching), categoryCounts, priceCounts,
+                tagCounts, intersectionSize(stocked, withoutStock));
+    }
+
+    private <K> BitSet union(Map<K, BitSet> facet, Iterable<K> selected) {
+        BitSet mask = null;
+        for (K key : selected) {
+            if (mask == null) {
+                mask = new BitSet(products.size());
+            }
+            BitSet bits = facet.get(key);
+            if (bits != null) {
+                mask.or(bits);
+            }
+        }
+        return mask != null ? mask : all;
+    }
+
+    private static BitSet and(BitSet first, BitSet... others) {
+        BitSet result = (BitSet) first.clone();
+        for (BitSet other : others) {
+            result.and(other);
+        }
+        return result;
+    }
+
+    private static int intersectionSize(BitSet bits, BitSet mask) {
+        if (bits == null) {
+            return 0;
+        }
+        BitSet result = (BitSet) bits.clone();
+        result.and(mask);
+        return result.cardinality();
+    }
+
+    private static List<String> tagsOf(Product product) {
+        List<String> result = new ArrayList<>();
+        if (product.getSeoKeywords() == null) {
+            return result;
+        }
+        for (String keyword : product.getSeoKeywords().split(",")) {
+            String tag = keyword.trim().toLowerCase(Locale.ROOT);
+            if (!tag.isEmpty() && !result.contains(tag)) {
+                result.add(tag);
+            }
+        }
+        return result;
+    }
+
+    public static final class Result {
+        private final List<Product> products;
+        private final Map<Product.Category, Integer> categoryCounts;
+        private final Map<ProductFilter.PriceRange, Integer> priceRangeCounts;
+        private final Map<String, Integer> tagCounts;
+        private final int inStockCount;
+
+        Result(List<Product> products, Map<Product.Category, Integer> categoryCounts,
+               Map<ProductFilter.PriceRange, Integer> priceRangeCounts, Map<String, Integer> tagCounts,
+               int inStockCount) {
+            this.products = products;
+            this.categoryCounts = categoryCounts;
+            this.priceRangeCounts = priceRangeCounts;
+            this.tagCounts = tagCounts;
+            this.inStockCount = inStockCount;
+        }
+
+        public List<Product> getProducts() {
+            return products;
+        }
+
+        public Map<Product.Category, Integer> getCategoryCounts() {
+            return categoryCounts;
+        }
+
+        public Map<ProductFilter.PriceRange, Integer> getPriceRangeCounts() {
+            return priceRangeCounts;
+        }
+
+        public Map<String, Integer> getTagCounts() {
+            return tagCounts;
+        }
+
+        public int getInStockCount() {
+            return inStockCount;
+        }
+
+        // The same counts over another list of the matching products, e.g. copies with current stock
+        Result withProducts(List<Product> matching) {
+            return new Result(matching, categoryCounts, priceRangeCounts, tagCounts, inStockCount);
+        }
+    }
+}
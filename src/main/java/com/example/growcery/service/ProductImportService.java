@@ -0,0 +1,495 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.ProductDTO;
+import com.example.growcery.dto.ProductImportReport;
+import com.example.growcery.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bulk product import from CSV or JSONL uploads. The upload is read one row at
+ * a time, each row is checked against the ProductDTO constraints, and valid
+ * rows are upserted through ProductService in batches of batch-size. Rejected
+ * rows go to an error file that carries the original columns plus the reason,
+ * so it can be fixed and uploaded again. Uploads from the admin page run one
+ * at a time on a background thread, and the page polls the report.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int MAX_REPORTS = 20;
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "category", "price", "stock");
+
+    private final ProductService productService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final ThreadPoolExecutor worker;
+
+    // Most recent imports, oldest evicted first together with its error file
+    private final Map<String, Imported> reports = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Imported> eldest) {
+            if (size() <= MAX_REPORTS) {
+                return false;
+            }
+            deleteQuietly(eldest.getValue().errorFile);
+            return true;
+        }
+    };
+
+    public ProductImportService(ProductService productService, Validator validator, ObjectMapper objectMapper,
+                                @Value("${growcery.import.batch-size:500}") int batchSize,
+                                @Value("${growcery.import.queue-capacity:10}") int queueCapacity) {
+        this.productService = productService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Copies the upload aside, since the request's copy is gone once it
+     * returns, and queues the import. The report is returned straight away and
+     * stays running until the worker has been through the file.
+     */
+    public ProductImportReport submit(String fileName, ExportService.Format format, InputStream in)
+            throws IOException {
+        Path upload = Files.createTempFile("growcery-upload-", ".tmp");
+        try {
+            Files.copy(in, upload, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(upload);
+            throw e;
+        }
+
+        Imported imported = register(fileName);
+        try {
+            worker.execute(() -> {
+                try (InputStream file = Files.newInputStream(upload)) {
+                    run(imported, format, file);
+                } catch (IOException e) {
+                    logger.error("Product import {} could not be read back: {}", fileName, e.getMessage());
+                    deleteQuietly(imported.errorFile);
+                    imported.report.fail(e.getMessage());
+                    imported.report.finish();
+                } finally {
+                    deleteQuietly(upload);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Import queue full, failing import of {}", fileName);
+            deleteQuietly(upload);
+            deleteQuietly(imported.errorFile);
+            imported.report.fail("Imports are busy, please try again later");
+            imported.report.finish();
+        }
+        return imported.report;
+    }
+
+    // Runs the import on the calling thread
+    public ProductImportReport importProducts(String fileName, ExportService.Format format, InputStream in)
+            throws IOException {
+        Imported imported = register(fileName);
+        run(imported, format, in);
+        return imported.report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private Imported register(String fileName) throws IOException {
+        ProductImportReport report = new ProductImportReport(UUID.randomUUID().toString(), fileName);
+        Imported imported = new Imported(report, Files.createTempFile("growcery-import-", ".csv"));
+        synchronized (reports) {
+            reports.put(report.getId(), imported);
+        }
+        return imported;
+    }
+
+    private void run(Imported imported, ExportService.Format format, InputStream in) {
+        ProductImportReport report = imported.report;
+        String fileName = report.getFileName();
+        Path errorFile = imported.errorFile;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+             Writer errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8)) {
+            errors.write("line,error," + String.join(",", ExportService.PRODUCT_COLUMNS) + "\n");
+            Iterator<Row> rows = format == ExportService.Format.JSONL ? new JsonRows(reader) : new CsvRows(reader);
+
+            List<Row> pending = new ArrayList<>(batchSize);
+            while (rows.hasNext()) {
+                Row row = rows.next();
+                report.rowRead();
+                if (row.error == null) {
+                    row.error = check(row);
+                }
+                if (row.error != null) {
+                    reject(report, errors, row, row.error);
+                    continue;
+                }
+                pending.add(row);
+                if (pending.size() >= batchSize) {
+                    apply(report, errors, pending);
+                }
+            }
+            apply(report, errors, pending);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Product import {} stopped: {}", fileName, e.getMessage());
+            report.fail(e.getMessage());
+        } finally {
+            report.finish();
+            if (report.getRejected() == 0) {
+                deleteQuietly(errorFile);
+            }
+        }
+
+        logger.info("Product import {}: {} rows, {} created, {} updated, {} rejected", fileName,
+                report.getRowsRead(), report.getCreated(), report.getUpdated(), report.getRejected());
+    }
+
+    public Optional<ProductImportReport> getReport(String id) {
+        synchronized (reports) {
+            return Optional.ofNullable(reports.get(id)).map(imported -> imported.report);
+        }
+    }
+
+    // Newest first
+    public List<ProductImportReport> getRecentReports() {
+        List<ProductImportReport> recent = new ArrayList<>();
+        synchronized (reports) {
+            reports.values().forEach(imported -> recent.add(0, imported.report));
+        }
+        return recent;
+    }
+
+    public Optional<Path> getErrorFile(String id) {
+        synchronized (reports) {
+            Imported imported = reports.get(id);
+            if (imported == null || imported.report.isRunning() || imported.report.getRejected() == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(imported.errorFile);
+        }
+    }
+
+    private void apply(ProductImportReport report, Writer errors, List<Row> pending) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            int created = productService.upsertProducts(pending.stream().map(row -> row.product).toList());
+            report.applied(created, pending.size() - created);
+        } catch (RuntimeException e) {
+            // One bad row should not cost the whole batch; redo it row by row to find it
+            logger.warn("Import batch failed ({}), retrying its rows one at a time", e.getMessage());
+            for (Row row : pending) {
+                try {
+                    int created = productService.upsertProducts(List.of(row.product));
+                    report.applied(created, 1 - created);
+                } catch (RuntimeException rowFailure) {
+                    reject(report, errors, row, rowFailure.getMessage());
+                }
+            }
+        }
+        pending.clear();
+        logger.info("Product import {}: {} rows read so far", report.getFileName(), report.getRowsRead());
+    }
+
+    private static void reject(ProductImportReport report, Writer errors, Row row, String error) throws IOException {
+        report.rowRejected();
+        StringBuilder line = new StringBuilder();
+        line.append(row.line).append(',').append(ExportService.csv(error));
+        for (String column : ExportService.PRODUCT_COLUMNS) {
+            line.append(',').append(ExportService.csv(row.values.get(normalize(column))));
+        }
+        errors.write(line.append('\n').toString());
+    }
+
+    // Parses and validates the row into row.product; returns the reason it was rejected, if any
+    private String check(Row row) {
+        ProductDTO product = new ProductDTO();
+        try {
+            product.setId(parse(row, "id", Long::valueOf));
+            product.setName(text(row, "name"));
+            product.setCategory(parse(row, "category",
+                    value -> Product.Category.valueOf(value.toUpperCase(Locale.ROOT))));
+            product.setPrice(parse(row, "price", BigDecimal::new));
+            product.setStock(parse(row, "stock", Integer::valueOf));
+            product.setSeoKeywords(text(row, "seo_keywords"));
+            product.setProductDescription(text(row, "product_description"));
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (ConstraintViolation<ProductDTO> violation : validator.validate(product)) {
+            violations.add(violation.getMessage());
+        }
+        if (!violations.isEmpty()) {
+            violations.sort(null);
+            return String.join("; ", violations);
+        }
+        row.product = product;
+        return null;
+    }
+
+    private static String text(Row row, String column) {
+        String value = row.values.get(normalize(column));
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static <T> T parse(Row row, String column, Function<String, T> parser) {
+        String value = text(row, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    // Header names match with case and separators ignored, so seoKeywords and seo_keywords both work
+    private static String normalize(String column) {
+        return column.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete import error file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static final class Imported {
+        private final ProductImportReport report;
+        private final Path errorFile;
+
+        private Imported(ProductImportReport report, Path errorFile) {
+            this.report = report;
+            this.errorFile = errorFile;
+        }
+    }
+
+    private static final class Row {
+        private final long line;
+        private final Map<String, String> values;
+        private String error;
+        private ProductDTO product;
+
+        private Row(long line, Map<String, String> values, String error) {
+            this.line = line;
+            this.values = values;
+            this.error = error;
+        }
+    }
+
+    /**
+     * RFC 4180 records with a header row; quoted fields may hold separators,
+     * doubled quotes and line breaks. Columns not in the header are ignored.
+     */
+    private static final class CsvRows implements Iterator<Row> {
+        private final Reader reader;
+        private final List<String> header = new ArrayList<>();
+        private long lineNumber = 1;
+        private long recordLine;
+        private int lookahead = -2;
+        private List<String> next;
+
+        private CsvRows(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> names = readRecord();
+            if (names == null) {
+                throw new IOException("The file is empty");
+            }
+            for (String name : names) {
+                header.add(normalize(name.replace("\uFEFF", "")));
+            }
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !header.contains(column)).toList();
+            if (!missing.isEmpty()) {
+                throw new IOException("Missing columns: " + String.join(", ", missing));
+            }
+            next = readRecord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Row next() {
+            List<String> fields = next;
+            long line = recordLine;
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                values.put(header.get(i), fields.get(i));
+            }
+            String error = fields.size() > header.size() ? "Row has more fields than the header" : null;
+            return new Row(line, values, error);
+        }
+
+        // Next non-blank record, or null at end of input
+        private List<String> readRecord() throws IOException {
+            while (true) {
+                recordLine = lineNumber;
+                List<String> fields = new ArrayList<>();
+                StringBuilder field = new StringBuilder();
+                boolean quoted = false;
+                boolean any = false;
+                int c;
+                while ((c = read()) != -1) {
+                    any = true;
+                    if (quoted) {
+                        if (c == '"') {
+                            if (peek() == '"') {
+                                read();
+                                field.append('"');
+                            } else {
+                                quoted = false;
+                            }
+                        } else {
+                            if (c == '\n') {
+                                lineNumber++;
+                            }
+                            field.append((char) c);
+                        }
+                    } else if (c == '"' && field.isEmpty()) {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else if (c == '\n') {
+                        lineNumber++;
+                        break;
+                    } else if (c != '\r') {
+                        field.append((char) c);
+                    }
+                }
+                if (!any) {
+                    return null;
+                }
+                fields.add(field.toString());
+                if (fields.size() > 1 || !fields.get(0).isBlank()) {
+                    return fields;
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (lookahead != -2) {
+                int c = lookahead;
+                lookahead = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        private int peek() throws IOException {
+            if (lookahead == -2) {
+                lookahead = reader.read();
+            }
+            return lookahead;
+        }
+    }
+
+    // One JSON object per line; values are read as text and parsed like CSV fields
+    private final class JsonRows implements Iterator<Row> {
+        private final BufferedReader reader;
+        private long lineNumber;
+        private String next;
+
+        private JsonRows(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Row next() {
+            String line = next;
+            long number = lineNumber;
+            try {
+                advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            Map<String, String> values = new HashMap<>();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    return new Row(number, values, "Not a JSON object");
+                }
+                node.fields().forEachRemaining(field -> values.put(normalize(field.getKey()),
+                        field.getValue().isNull() ? null : field.getValue().asText()));
+                return new Row(number, values, null);
+            } catch (JsonProcessingException e) {
+                return new Row(number, values, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        private void advance() throws IOException {
+            do {
+                next = reader.readLine();
+                lineNumber++;
+            } while (next != null && next.isBlank());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.growcery.service;
+
+import com.example.growcery.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over product name, SEO keywords and description.
+ * Kept current by ProductService on every save, update and delete.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float KEYWORD_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    // term -> (product id -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // product id -> its terms, so a product can be removed without scanning all postings
+    private final Map<Long, Collection<String>> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            for (Product product : products) {
+                addDocument(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            addDocument(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns product ids ordered by relevance. The last query term also matches
+     * as a prefix so partially typed words still find results.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Float> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documents = Math.max(documentTerms.size(), 1);
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                boolean prefix = i == terms.size() - 1 && term.length() >= MIN_PREFIX_LENGTH;
+                Map<String, Map<Long, Float>> matches = prefix
+                        ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                        : singleTerm(term);
+
+                for (Map.Entry<String, Map<Long, Float>> match : matches.entrySet()) {
+                    Map<Long, Float> postingList = match.getValue();
+                    float idf = (float) Math.log(1.0 + (double) documents / postingList.size());
+                    // Exact hits rank above prefix completions
+                    float boost = match.getKey().equals(term) ? 1.0f : 0.5f;
+                    for (Map.Entry<Long, Float> posting : postingList.entrySet()) {
+                        scores.merge(posting.getKey(), posting.getValue() * idf * boost, Float::sum);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Float.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+        });
+
+        List<Long> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            result.add(ranked.get(i).getKey());
+        }
+        return result;
+    }
+
+    private Map<String, Map<Long, Float>> singleTerm(String term) {
+        Map<Long, Float> postingList = postings.get(term);
+        return postingList == null ? Map.of() : Map.of(term, postingList);
+    }
+
+    private void addDocument(Product product) {
+        Map<String, Float> weights = new HashMap<>();
+        accumulate(weights, product.getName(), NAME_WEIGHT);
+        accumulate(weights, product.getSeoKeywords(), KEYWORD_WEIGHT);
+        accumulate(weights, product.getProductDescription(), DESCRIPTION_WEIGHT);
+
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>())
+                    .put(product.getId(), entry.getValue());
+        }
+        documentTerms.put(product.getId(), new ArrayList<>(weights.keySet()));
+    }
+
+    private void removeDocument(Long productId) {
+        Collection<String> terms = documentTerms.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(productId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void accumulate(Map<String, Float> weights, String text, float weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        StringBuilder current = new StringBuilder();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (current.length() > 0) {
+                terms.add(stem(current.toString()));
+                current.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    // Light suffix stripping: enough to match "apples"/"apple" and "berries"/"berry"
+    static String stem(String term) {
+        if (term.length() > 4 && term.endsWith("ies")) {
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if (term.length() > 5 && term.endsWith("ing")) {
+            return term.substring(0, term.length() - 3);
+        }
+        if (term.length() > 4 && (term.endsWith("oes") || term.endsWith("ches") || term.endsWith("shes"))) {
+            return term.substring(0, term.length() - 2);
+        }
+        if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+            return term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+}
@@ -1,32 +1,237 @@
 package com.example.growcery.service;
 
 import com.example.growcery.dto.ProductDTO;
+import com.example.growcery.dto.ProductFilter;
+import com.example.growcery.dto.ProductPage;
+import com.example.growcery.dto.ProductSummary;
 import com.example.growcery.model.Product;
 import com.example.growcery.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class ProductService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final HotInventory hotInventory;
+    private final StockReservations reservations;
+    private final DashboardCounters dashboardCounters;
+    private final LowStockMonitor lowStockMonitor;
+
+    // Read-through catalog cache; every write bumps the version so a load that
+    // raced with a write is never installed
+    private final AtomicLong catalogVersion = new AtomicLong();
+    // Stock changes don't invalidate the snapshot. Each committed stock is kept
+    // with the epoch it was read at and overrides snapshots loaded before it
+    private final AtomicLong stockEpoch = new AtomicLong();
+    private final Map<Long, StockLevel> stockLevels = new ConcurrentHashMap<>();
+    private final Object stockChangesKey = new Object();
+    private volatile CatalogSnapshot catalogSnapshot;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductSearchIndex searchIndex,
+                          HotInventory hotInventory, StockReservations reservations,
+                          DashboardCounters dashboardCounters, LowStockMonitor lowStockMonitor) {
         this.productRepository = productRepository;
+        this.searchIndex = searchIndex;
+        this.hotInventory = hotInventory;
+        this.reservations = reservations;
+        this.dashboardCounters = dashboardCounters;
+        this.lowStockMonitor = lowStockMonitor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        searchIndex.rebuild(getAllProducts());
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreHotInventory() {
+        if (hotInventory.getHotProductIds().isEmpty()) {
+            return;
+        }
+        for (ProductSummary row : productRepository.findSummariesByIdIn(hotInventory.getHotProductIds())) {
+            hotInventory.load(row.getId(), row.getStock());
+        }
+        logger.info("Hot inventory counters loaded for products {}", hotInventory.getHotProductIds());
+    }
+
+    // Writes the net sales of hot products back to the products table
+    @Scheduled(fixedDelayString = "${growcery.inventory.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flushHotInventory() {
+        Map<Long, Integer> pending = hotInventory.drainPending();
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Long, Integer> entry : pending.entrySet()) {
+            try {
+                productRepository.subtractStock(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                // Keep the delta for the next run rather than losing sales
+                logger.error("Failed to flush hot inventory for product {}: {}", entry.getKey(), e.getMessage());
+                hotInventory.commit(entry.getKey(), entry.getValue());
+            }
+        }
+        refreshCachedStock(pending.keySet());
+    }
+
+    // Every read hands out copies, so callers editing or rendering them never share the cached instances
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        CatalogSnapshot snapshot = catalog();
+        return views(snapshot, snapshot.products);
     }
 
     public List<Product> getProductsByCategory(Product.Category category) {
-        return productRepository.findByCategory(category);
+        CatalogSnapshot snapshot = catalog();
+        return views(snapshot, snapshot.byCategory.getOrDefault(category, Collections.emptyList()));
     }
 
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        CatalogSnapshot snapshot = catalog();
+        return Optional.ofNullable(snapshot.byId.get(id)).map(product -> view(snapshot, product));
+    }
+
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        Map<Long, Product> result = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        // One IN-batch instead of a lookup per id; free when the catalog is cached
+        CatalogSnapshot snapshot = liveSnapshot();
+        if (snapshot != null) {
+            for (Long id : ids) {
+                Product product = snapshot.byId.get(id);
+                if (product != null) {
+                    result.put(id, view(snapshot, product));
+                }
+            }
+        } else {
+            for (Product product : productRepository.findAllById(ids)) {
+                result.put(product.getId(), product);
+            }
+        }
+        return result;
+    }
+
+    public List<ProductSummary> getProductSummaries() {
+        // Reuse a live snapshot; otherwise don't drag every description out of MySQL for a listing
+        CatalogSnapshot snapshot = liveSnapshot();
+        if (snapshot != null) {
+            return views(snapshot, snapshot.products).stream().map(ProductSummary::fromEntity).toList();
+        }
+        return productRepository.findAllSummaries();
+    }
+
+    public ProductPage getProductPage(Product.Category category, ProductPage.SortField sort,
+                                      String after, Integer size) {
+        int pageSize = ProductPage.clampPageSize(size);
+        // Fetch one extra row to know whether there is a next page
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        Optional<Product> cursor = ProductPage.parseCursor(sort, after);
+        List<Product> rows;
+        if (cursor.isEmpty()) {
+            Sort order = Sort.by(sort.getProperty());
+            if (sort != ProductPage.SortField.ID) {
+                order = order.and(Sort.by("id"));
+            }
+            rows = productRepository.findFirstPage(category, PageRequest.of(0, pageSize + 1, order));
+        } else {
+            Product last = cursor.get();
+            rows = switch (sort) {
+                case NAME -> productRepository.findPageAfterName(category, last.getName(), last.getId(), limit);
+                case PRICE -> productRepository.findPageAfterPrice(category, last.getPrice(), last.getId(), limit);
+                case STOCK -> productRepository.findPageAfterStock(category, last.getStock(), last.getId(), limit);
+                case ID -> productRepository.findPageAfterId(category, last.getId(), limit);
+            };
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = ProductPage.cursorAfter(sort, rows.get(pageSize - 1));
+        }
+        return new ProductPage(rows, sort, pageSize, nextCursor);
+    }
+
+    public ProductPage getProductPage(ProductFilter filter, ProductPage.SortField sort,
+                                      String after, Integer size) {
+        if (!filter.hasFacetsBeyondCategory()) {
+            Product.Category category = filter.getCategories().isEmpty()
+                    ? null : filter.getCategories().iterator().next();
+            return getProductPage(category, sort, after, size);
+        }
+
+        // Facet matches are already in memory, so seek through them there
+        int pageSize = ProductPage.clampPageSize(size);
+        Comparator<Product> order = comparatorFor(sort);
+        List<Product> matches = new ArrayList<>(filterProducts(filter).getProducts());
+        matches.sort(order);
+
+        int start = 0;
+        Optional<Product> cursor = ProductPage.parseCursor(sort, after);
+        if (cursor.isPresent()) {
+            Product last = cursor.get();
+            while (start < matches.size() && order.compare(matches.get(start), last) <= 0) {
+                start++;
+            }
+        }
+
+        int end = Math.min(start + pageSize, matches.size());
+        List<Product> rows = matches.subList(start, end);
+        String nextCursor = end < matches.size() && !rows.isEmpty()
+                ? ProductPage.cursorAfter(sort, rows.get(rows.size() - 1)) : null;
+        return new ProductPage(new ArrayList<>(rows), sort, pageSize, nextCursor);
+    }
+
+    public ProductFacetIndex.Result filterProducts(ProductFilter filter) {
+        CatalogSnapshot snapshot = catalog();
+        ProductFacetIndex.Result result = snapshot.facets.filter(filter);
+        return result.withProducts(views(snapshot, result.getProducts()));
+    }
+
+    public List<Product> searchProducts(String query, int limit) {
+        CatalogSnapshot snapshot = catalog();
+        List<Product> results = new ArrayList<>();
+        for (Long id : searchIndex.search(query, limit)) {
+            Product product = snapshot.byId.get(id);
+            if (product != null) {
+                results.add(view(snapshot, product));
+            }
+        }
+        return results;
     }
 
     public Product saveProduct(ProductDTO productDTO) {
@@ -36,47 +241,487 @@ public class ProductService {
             product.setId(productDTO.getId());
         }
         product.setName(productDTO.getName());
-        
+
         // Handle null values safely
         if (productDTO.getProductDescription() != null) {
             product.setProductDescription(productDTO.getProductDescription());
         }
-        
+
         product.setCategory(productDTO.getCategory());
         product.setPrice(productDTO.getPrice());
         product.setStock(productDTO.getStock());
-        
+
         // Set SEO keywords if provided
         if (productDTO.getSeoKeywords() != null) {
             product.setSeoKeywords(productDTO.getSeoKeywords());
         }
-        
-        return productRepository.save(product);
+
+        Integer previousStock = hotStockBeforeSave(productDTO.getId());
+        Product saved = productRepository.save(product);
+        if (productDTO.getId() == null) {
+            dashboardCounters.productsAdded(1);
+        }
+        invalidateCatalog();
+        searchIndex.index(saved);
+        resetHotInventory(saved, previousStock);
+        lowStockMonitor.stockChanged(saved.getId(), saved.getName(), saved.getStock());
+        return saved;
     }
-    
+
     public Product updateProduct(Product product) {
-        return productRepository.save(product);
+        boolean added = product.getId() == null;
+        Integer previousStock = hotStockBeforeSave(product.getId());
+        Product saved = productRepository.save(product);
+        if (added) {
+            dashboardCounters.productsAdded(1);
+        }
+        invalidateCatalog();
+        searchIndex.index(saved);
+        resetHotInventory(saved, previousStock);
+        lowStockMonitor.stockChanged(saved.getId(), saved.getName(), saved.getStock());
+        return saved;
+    }
+
+    // Description edits never write the stock column, so they can't restore units sold since the page was read
+    public boolean updateDescription(Long productId, String description, String keywords) {
+        if (productRepository.updateDescription(productId, description, keywords) == 0) {
+            return false;
+        }
+        invalidateCatalog();
+        productRepository.findById(productId).ifPresent(searchIndex::index);
+        return true;
+    }
+
+    /**
+     * Creates or updates a batch of imported products in one transaction. A row
+     * with an id updates that product, a row without one updates the product
+     * with the same name or creates it. Returns how many products were created.
+     */
+    @Transactional
+    public int upsertProducts(List<ProductDTO> rows) {
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : productRepository.findAllById(rows.stream()
+                .map(ProductDTO::getId).filter(Objects::nonNull).toList())) {
+            byId.put(product.getId(), product);
+        }
+        // Keyed by lower-cased name, as MySQL's default collation matches names without regard to case
+        Map<String, Product> byName = new HashMap<>();
+        for (Product product : productRepository.findByNameIn(rows.stream()
+                .filter(row -> row.getId() == null).map(ProductDTO::getName).toList())) {
+            // Duplicate names resolve to the oldest product
+            byName.merge(nameKey(product.getName()), product, (a, b) -> a.getId() < b.getId() ? a : b);
+        }
+
+        List<Product> batch = new ArrayList<>(rows.size());
+        // Stock each product had before this batch; null for the ones it creates
+        Map<Product, Integer> previousStock = new IdentityHashMap<>();
+        int created = 0;
+        for (ProductDTO row : rows) {
+            Product product = row.getId() != null ? byId.get(row.getId()) : byName.get(nameKey(row.getName()));
+            if (product == null) {
+                if (row.getId() != null) {
+                    throw new RuntimeException("Product not found: " + row.getId());
+                }
+                product = new Product();
+                // A name repeated later in the same file updates this row instead of adding another
+                byName.put(nameKey(row.getName()), product);
+                created++;
+            }
+            if (!previousStock.containsKey(product)) {
+                previousStock.put(product, product.getStock());
+            }
+            product.setName(row.getName());
+            product.setCategory(row.getCategory());
+            product.setPrice(row.getPrice());
+            product.setStock(row.getStock());
+            if (row.getProductDescription() != null) {
+                product.setProductDescription(row.getProductDescription());
+            }
+            if (row.getSeoKeywords() != null) {
+                product.setSeoKeywords(row.getSeoKeywords());
+            }
+            batch.add(product);
+        }
+
+        List<Product> saved = productRepository.saveAll(batch);
+        dashboardCounters.productsAdded(created);
+        invalidateCatalog();
+        // A rolled back batch must not leave ids behind in the search index or the counters
+        Runnable publish = () -> saved.forEach(product -> {
+            searchIndex.index(product);
+            // Price-only rows must not touch hot counters
+            if (!Objects.equals(previousStock.get(product), product.getStock())) {
+                resetHotInventory(product, previousStock.get(product));
+            }
+            lowStockMonitor.stockChanged(product.getId(), product.getName(), product.getStock());
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+        return created;
     }
 
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        dashboardCounters.productRemoved();
+        invalidateCatalog();
+        stockLevels.remove(id);
+        searchIndex.remove(id);
+        hotInventory.remove(id);
+        lowStockMonitor.productRemoved(id);
     }
 
+    @Transactional
     public boolean updateStock(Long productId, Integer quantity) {
-        Optional<Product> optionalProduct = productRepository.findById(productId);
-        if (optionalProduct.isPresent()) {
-            Product product = optionalProduct.get();
-            if (product.getStock() >= quantity) {
-                product.setStock(product.getStock() - quantity);
-                productRepository.save(product);
-                return true;
-            }
+        if (hotInventory.isActive(productId)) {
+            return takeHotStock(productId, quantity);
+        }
+        if (productRepository.decrementStockIfSufficient(productId, quantity) == 0) {
+            return false;
         }
-        return false;
+        applyStockChange(productId);
+        return true;
     }
 
     public boolean checkStock(Long productId, Integer quantity) {
-        Optional<Product> optionalProduct = productRepository.findById(productId);
-        return optionalProduct.map(product -> product.getStock() >= quantity).orElse(false);
+        return getAvailableStock(productId) >= quantity;
+    }
+
+    public int getReservedStock(Long productId) {
+        return reservations.reserved(productId);
+    }
+
+    // Stock not held by any cart reservation
+    public int getAvailableStock(Long productId) {
+        Integer stock = currentStock(productId);
+        return stock != null ? Math.max(0, stock - reservations.reserved(productId)) : 0;
+    }
+
+    // Holds exactly this quantity of the product for the customer's cart line
+    public boolean reserveStock(Long customerId, Long productId, int quantity) {
+        Integer stock = currentStock(productId);
+        return stock != null && reservations.reserve(customerId, productId, quantity, stock);
+    }
+
+    public int getReservedStock(Long productId, Long customerId) {
+        return reservations.reservedBy(productId, customerId);
+    }
+
+    public void releaseReservation(Long customerId, Long productId) {
+        reservations.release(customerId, productId);
+    }
+
+    public void releaseReservations(Long customerId) {
+        reservations.releaseAll(customerId);
+    }
+
+    /**
+     * Turns the customer's hold into a real decrement. Stock other carts hold is
+     * left alone, so the decrement only succeeds if it fits next to their holds.
+     */
+    @Transactional
+    public boolean consumeReservation(Long customerId, Long productId, Integer quantity) {
+        if (hotInventory.isActive(productId)) {
+            return takeHotStock(productId, quantity);
+        }
+        int required = quantity + reservations.reservedByOthers(productId, customerId);
+        if (productRepository.decrementStockIfAvailable(productId, quantity, required) == 0) {
+            return false;
+        }
+        applyStockChange(productId);
+        return true;
+    }
+
+    /**
+     * Consumes the holds of several customers on one product with a single
+     * decrement of their combined quantity. Holds of customers outside the
+     * group are protected just like in consumeReservation.
+     */
+    @Transactional
+    public boolean consumeReservations(Long productId, int quantity, Collection<Long> customerIds) {
+        if (hotInventory.isActive(productId)) {
+            return takeHotStock(productId, quantity);
+        }
+        int heldByGroup = 0;
+        for (Long customerId : customerIds) {
+            heldByGroup += reservations.reservedBy(productId, customerId);
+        }
+        int required = quantity + Math.max(0, reservations.reserved(productId) - heldByGroup);
+        if (productRepository.decrementStockIfAvailable(productId, quantity, required) == 0) {
+            return false;
+        }
+        applyStockChange(productId);
+        return true;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    private CatalogSnapshot liveSnapshot() {
+        CatalogSnapshot snapshot = catalogSnapshot;
+        return snapshot != null && snapshot.version == catalogVersion.get() ? snapshot : null;
+    }
+
+    private CatalogSnapshot catalog() {
+        CatalogSnapshot snapshot = catalogSnapshot;
+        long version = catalogVersion.get();
+        if (snapshot != null && snapshot.version == version) {
+            return snapshot;
+        }
+
+        // Stock committed from here on is laid over whatever findAll returns
+        CatalogSnapshot loaded = new CatalogSnapshot(version, stockEpoch.get(), productRepository.findAll());
+        synchronized (this) {
+            // Only publish if no write happened while we were loading, and never over a later load
+            CatalogSnapshot current = catalogSnapshot;
+            if (catalogVersion.get() == version
+                    && (current == null || current.version != version || current.stockEpoch <= loaded.stockEpoch)) {
+                catalogSnapshot = loaded;
+            }
+        }
+        // Published first, so a stock change landing after this loop patches the new facets itself
+        for (Map.Entry<Long, StockLevel> entry : stockLevels.entrySet()) {
+            if (entry.getValue().epoch > loaded.stockEpoch) {
+                updateFacetStock(loaded, entry.getKey());
+            }
+        }
+        return loaded;
+    }
+
+    // The one stock source for availability and holds: hot counters, else the catalog with committed changes
+    private Integer currentStock(Long productId) {
+        if (hotInventory.isActive(productId)) {
+            return hotInventory.available(productId);
+        }
+        CatalogSnapshot snapshot = catalog();
+        Product product = snapshot.byId.get(productId);
+        return product != null ? stockOf(snapshot, product) : null;
+    }
+
+    private boolean takeHotStock(Long productId, int quantity) {
+        if (!hotInventory.tryTake(productId, quantity)) {
+            return false;
+        }
+
+        // The units only become a database delta if the checkout commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        hotInventory.commit(productId, quantity);
+                        lowStockMonitor.stockChanged(productId, () -> hotInventory.available(productId));
+                    } else {
+                        hotInventory.release(productId, quantity);
+                    }
+                }
+            });
+        } else {
+            hotInventory.commit(productId, quantity);
+            lowStockMonitor.stockChanged(productId, () -> hotInventory.available(productId));
+        }
+        return true;
+    }
+
+    // The row's stock before a save, only read for hot products whose counters follow the row
+    private Integer hotStockBeforeSave(Long productId) {
+        if (productId == null || !hotInventory.getHotProductIds().contains(productId)) {
+            return null;
+        }
+        List<ProductSummary> rows = productRepository.findSummariesByIdIn(Set.of(productId));
+        return rows.isEmpty() ? null : rows.get(0).getStock();
+    }
+
+    /**
+     * Follows a save of a hot product. Saves that leave the stock alone (a new
+     * description, a price) don't touch the counters. A stock edit shifts them by
+     * the difference, so sales not yet flushed stay owed to the row and checkouts
+     * still in flight keep their units. previousStock is null for a new row.
+     */
+    private void resetHotInventory(Product saved, Integer previousStock) {
+        if (!hotInventory.getHotProductIds().contains(saved.getId())) {
+            return;
+        }
+        if (previousStock == null || !hotInventory.isActive(saved.getId())) {
+            hotInventory.load(saved.getId(), saved.getStock());
+        } else if (!previousStock.equals(saved.getStock())) {
+            hotInventory.adjust(saved.getId(), saved.getStock() - previousStock);
+        }
+    }
+
+    private void applyStockChange(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshCachedStock(Set.of(productId));
+            return;
+        }
+
+        // Collect every product touched by the transaction and refresh them in one read after commit
+        @SuppressWarnings("unchecked")
+        Set<Long> changed = (Set<Long>) TransactionSynchronizationManager.getResource(stockChangesKey);
+        if (changed == null) {
+            Set<Long> pending = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(stockChangesKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshCachedStock(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(stockChangesKey);
+                }
+            });
+            changed = pending;
+        }
+        changed.add(productId);
+    }
+
+    private void refreshCachedStock(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        // No lock around the read. The epoch is taken before it, so a refresh with a
+        // later epoch saw every commit that happened before its own started, and each
+        // product only ever moves to a higher epoch
+        long epoch = stockEpoch.incrementAndGet();
+        // Read even without a cached catalog; the low-stock monitor follows every committed change
+        for (ProductSummary row : productRepository.findSummariesByIdIn(productIds)) {
+            StockLevel level = new StockLevel(epoch, row.getStock());
+            if (stockLevels.merge(row.getId(), level, (older, newer) -> newer.epoch > older.epoch ? newer : older)
+                    != level) {
+                continue;
+            }
+            CatalogSnapshot snapshot = catalogSnapshot;
+            if (snapshot != null) {
+                updateFacetStock(snapshot, row.getId());
+            }
+            lowStockMonitor.stockChanged(row.getId(), () -> monitoredStock(row.getId()));
+        }
+    }
+
+    private int monitoredStock(Long productId) {
+        if (hotInventory.isActive(productId)) {
+            return hotInventory.available(productId);
+        }
+        StockLevel level = stockLevels.get(productId);
+        return level != null ? level.stock : 0;
+    }
+
+    private void updateFacetStock(CatalogSnapshot snapshot, Long productId) {
+        Product product = snapshot.byId.get(productId);
+        if (product == null) {
+            return;
+        }
+        // Read and write under the index's lock so the last writer always sets the newest stock
+        synchronized (snapshot.facets) {
+            snapshot.facets.updateStock(productId, stockOf(snapshot, product));
+        }
+    }
+
+    // The snapshot's stock unless a change committed after it was loaded
+    private int stockOf(CatalogSnapshot snapshot, Product product) {
+        StockLevel level = stockLevels.get(product.getId());
+        return level != null && level.epoch > snapshot.stockEpoch ? level.stock : product.getStock();
+    }
+
+    private Product view(CatalogSnapshot snapshot, Product product) {
+        Product copy = copyOf(product);
+        copy.setStock(stockOf(snapshot, product));
+        return copy;
+    }
+
+    private List<Product> views(CatalogSnapshot snapshot, List<Product> products) {
+        List<Product> copies = new ArrayList<>(products.size());
+        for (Product product : products) {
+            copies.add(view(snapshot, product));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    private void invalidateCatalog() {
+        catalogVersion.incrementAndGet();
+        catalogSnapshot = null;
+
+        // Readers may reload before the surrounding transaction commits, so
+        // invalidate once more when the new rows are actually visible
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    catalogVersion.incrementAndGet();
+                    catalogSnapshot = null;
+                }
+            });
+        }
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getProductDescription(),
+                product.getCategory(), product.getPrice(), product.getStock(), product.getSeoKeywords());
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    // Names compare like the database's case-insensitive collation, so both page paths agree
+    private static Comparator<Product> comparatorFor(ProductPage.SortField sort) {
+        Comparator<Product> byKey = switch (sort) {
+            case NAME -> Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER);
+            case PRICE -> Comparator.comparing(Product::getPrice);
+            case STOCK -> Comparator.comparing(Product::getStock);
+            case ID -> Comparator.comparing(Product::getId);
+        };
+        return byKey.thenComparing(Product::getId);
+    }
+
+    private static final class StockLevel {
+        private final long epoch;
+        private final int stock;
+
+        private StockLevel(long epoch, int stock) {
+            this.epoch = epoch;
+            this.stock = stock;
+        }
+    }
+
+    private static final class CatalogSnapshot {
+        private final long version;
+        private final long stockEpoch;
+        private final List<Product> products;
+        private final Map<Long, Product> byId;
+        private final Map<Product.Category, List<Product>> byCategory;
+        private final ProductFacetIndex facets;
+
+        private CatalogSnapshot(long version, long stockEpoch, List<Product> loaded) {
+            // Private copies that are never modified; readers only get copies of these
+            List<Product> products = new ArrayList<>(loaded.size());
+            for (Product product : loaded) {
+                products.add(copyOf(product));
+            }
+            this.version = version;
+            this.stockEpoch = stockEpoch;
+            this.products = Collections.unmodifiableList(products);
+            this.byId = new HashMap<>(products.size() * 2);
+            this.facets = new ProductFacetIndex(this.products);
+            Map<Product.Category, List<Product>> grouped = new EnumMap<>(Product.Category.class);
+            for (Product product : products) {
+                byId.put(product.getId(), product);
+                if (product.getCategory() != null) {
+                    grouped.computeIfAbsent(product.getCategory(), c -> new ArrayList<>()).add(product);
+                }
+            }
+            grouped.replaceAll((category, list) -> Collections.unmodifiableList(list));
+            this.byCategory = grouped;
+        }
     }
-}
\ No newline at end of file
+}
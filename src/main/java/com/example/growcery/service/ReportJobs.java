@@ -0,0 +1,236 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.ReportJob;
+import com.example.growcery.dto.ReportRow;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.User;
+import com.example.growcery.repository.ArchivedOrderRepository;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ad-hoc sales reports over arbitrary date ranges. A report is split into
+ * chunks of a few days; a bounded pool of workers runs one grouped query per
+ * chunk against the hot and archived order tables, and the small partial
+ * aggregates are merged once every chunk is in. Only grouped rows are ever
+ * held in memory, and request threads only submit and poll.
+ */
+@Service
+public class ReportJobs {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobs.class);
+    private static final int MAX_JOBS = 50;
+    private static final int CUSTOMER_BATCH = 1000;
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final UserRepository userRepository;
+    private final OrderArchive orderArchive;
+    private final int chunkDays;
+    private final ThreadPoolExecutor workers;
+
+    // Most recent jobs by id, oldest evicted first
+    private final Map<String, ReportJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReportJob> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+
+    public ReportJobs(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                      UserRepository userRepository, OrderArchive orderArchive,
+                      @Value("${growcery.reports.chunk-days:7}") int chunkDays,
+                      @Value("${growcery.reports.workers:4}") int workerCount,
+                      @Value("${growcery.reports.queue-capacity:1000}") int queueCapacity) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.userRepository = userRepository;
+        this.orderArchive = orderArchive;
+        this.chunkDays = Math.max(1, chunkDays);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public ReportJob submit(ReportJob.Type type, LocalDate from, LocalDate to) {
+        if (type == null || from == null || to == null) {
+            throw new RuntimeException("Report type and date range are required");
+        }
+        if (to.isBefore(from)) {
+            throw new RuntimeException("The report end date must not be before its start date");
+        }
+
+        ReportJob job;
+        synchronized (jobs) {
+            // A range that ended before today cannot change any more, so a finished report is served again
+            boolean closed = to.isBefore(LocalDate.now());
+            for (ReportJob existing : jobs.values()) {
+                if (existing.getType() == type && existing.getFrom().equals(from) && existing.getTo().equals(to)
+                        && (existing.isRunning() || (closed && existing.getStatus() == ReportJob.Status.DONE))) {
+                    return existing;
+                }
+            }
+
+            List<LocalDate> starts = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(chunkDays)) {
+                starts.add(day);
+            }
+            job = new ReportJob(UUID.randomUUID().toString(), type, from, to, starts.size());
+            jobs.put(job.getId(), job);
+            start(job, starts);
+        }
+        return job;
+    }
+
+    public Optional<ReportJob> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    // Newest first
+    public List<ReportJob> getRecentJobs() {
+        synchronized (jobs) {
+            List<ReportJob> recent = new ArrayList<>(jobs.values());
+            recent.sort(Comparator.comparing(ReportJob::getCreatedAt).reversed());
+            return recent;
+        }
+    }
+
+    public void writeCsv(ReportJob job, Writer out) throws IOException {
+        out.write(job.getType().getGroupName() + "_key," + job.getType().getGroupName() + ",orders,units,revenue\n");
+        for (ReportRow row : job.getRows()) {
+            out.write(ExportService.csv(row.getKey()) + "," + ExportService.csv(row.getLabel()) + ","
+                    + row.getOrders() + "," + row.getUnits() + "," + row.getRevenue() + "\n");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void start(ReportJob job, List<LocalDate> starts) {
+        List<CompletableFuture<List<ReportRow>>> parts = new ArrayList<>();
+        try {
+            for (LocalDate chunkStart : starts) {
+                LocalDate chunkEnd = chunkStart.plusDays(chunkDays);
+                if (chunkEnd.isAfter(job.getTo())) {
+                    chunkEnd = job.getTo().plusDays(1);
+                }
+                LocalDateTime from = chunkStart.atStartOfDay();
+                LocalDateTime to = chunkEnd.atStartOfDay();
+                parts.add(CompletableFuture.supplyAsync(() -> scanChunk(job, from, to), workers));
+            }
+        } catch (RejectedExecutionException e) {
+            logger.warn("Report queue full, failing report {}", job.getId());
+            parts.forEach(part -> part.cancel(false));
+            job.fail("Reports are busy, please try again later");
+            return;
+        }
+
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure;
+                logger.error("Report {} failed", job.getId(), cause);
+                job.fail("Report failed: " + cause.getMessage());
+                return;
+            }
+            try {
+                job.complete(merge(job, parts));
+            } catch (RuntimeException e) {
+                logger.error("Report {} failed", job.getId(), e);
+                job.fail("Report failed: " + e.getMessage());
+            }
+        });
+    }
+
+    List<ReportRow> scanChunk(ReportJob job, LocalDateTime from, LocalDateTime to) {
+        Order.OrderStatus status = Order.OrderStatus.SUCCESSFUL;
+        List<ReportRow> rows = new ArrayList<>(switch (job.getType()) {
+            case CATEGORY -> orderRepository.sumReportByCategory(status, from, to);
+            case PRODUCT -> orderRepository.sumReportByProduct(status, from, to);
+            case CUSTOMER -> orderRepository.sumReportByCustomer(status, from, to);
+        });
+        // Nothing this recent has been archived yet
+        LocalDateTime newestArchived = orderArchive.getNewestArchivedDate();
+        if (newestArchived != null && !newestArchived.isBefore(from)) {
+            rows.addAll(switch (job.getType()) {
+                case CATEGORY -> archivedOrderRepository.sumReportByCategory(status, from, to);
+                case PRODUCT -> archivedOrderRepository.sumReportByProduct(status, from, to);
+                case CUSTOMER -> archivedOrderRepository.sumReportByCustomer(status, from, to);
+            });
+        }
+        job.chunkDone();
+        return rows;
+    }
+
+    private List<ReportRow> merge(ReportJob job, List<CompletableFuture<List<ReportRow>>> parts) {
+        Map<String, ReportRow> merged = new HashMap<>();
+        for (CompletableFuture<List<ReportRow>> part : parts) {
+            for (ReportRow row : part.join()) {
+                ReportRow existing = merged.putIfAbsent(row.getKey(), row);
+                if (existing != null) {
+                    existing.add(row);
+                }
+            }
+        }
+        if (job.getType() == ReportJob.Type.CUSTOMER) {
+            labelCustomers(merged);
+        } else {
+            // Lines from before product snapshots were recorded may carry no name
+            merged.values().stream()
+                    .filter(row -> row.getLabel() == null || row.getLabel().isEmpty())
+                    .forEach(row -> row.setLabel("Product #" + row.getKey()));
+        }
+
+        List<ReportRow> rows = new ArrayList<>(merged.values());
+        rows.sort(Comparator.comparing(ReportRow::getRevenue).reversed().thenComparing(ReportRow::getLabel));
+        return rows;
+    }
+
+    private void labelCustomers(Map<String, ReportRow> rows) {
+        List<Long> ids = rows.keySet().stream().map(Long::valueOf).toList();
+        for (int i = 0; i < ids.size(); i += CUSTOMER_BATCH) {
+            for (User user : userRepository.findAllById(ids.subList(i, Math.min(ids.size(), i + CUSTOMER_BATCH)))) {
+                rows.get(String.valueOf(user.getId())).setLabel(user.getUsername());
+            }
+        }
+        for (ReportRow row : rows.values()) {
+            if (row.getLabel() == null || row.getLabel().isEmpty()) {
+                row.setLabel("Deleted customer #" + row.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.OrderLineExport;
+import com.example.growcery.dto.ProductSales;
+import com.example.growcery.dto.SalesSummary;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import com.example.growcery.repository.ArchivedOrderRepository;
+import com.example.growcery.repository.OrderRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Sales figures for the admin dashboard, kept up to date by checkout instead
+ * of grouped queries per page view. Revenue, orders and units sit in ring
+ * buffers of day and hour buckets indexed by epoch day/hour; units and revenue
+ * per product sit in a primitive open-addressing table. Everything is rebuilt
+ * from the order tables on startup, after which each committed checkout adds
+ * its order in constant time.
+ */
+@Service
+public class SalesRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollups.class);
+
+    // Day buckets must cover the weekly view; hour buckets the hourly one
+    private static final int DAY_SLOTS = 64;
+    private static final int HOUR_SLOTS = 48;
+    private static final int DAYS_SHOWN = 14;
+    private static final int WEEKS_SHOWN = 8;
+    private static final int HOURS_SHOWN = 24;
+    private static final int WINDOW_DAYS = 30;
+    private static final int TOP_PRODUCTS = 5;
+
+    private static final DateTimeFormatter DAY_LABEL = DateTimeFormatter.ofPattern("MMM d");
+    private static final DateTimeFormatter HOUR_LABEL = DateTimeFormatter.ofPattern("HH:00");
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    // Guarded by this
+    private Rollup rollup = new Rollup();
+    // Sales committed while a rebuild runs; replayed on top of the rebuilt rollup
+    private List<Sale> heldDuringRebuild;
+
+    public SalesRollups(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        synchronized (this) {
+            heldDuringRebuild = new ArrayList<>();
+        }
+        long started = System.currentTimeMillis();
+        LocalDateTime before = LocalDateTime.now();
+        Rollup rebuilt = new Rollup();
+        OrderIds read = new OrderIds();
+        LocalDateTime from = before.toLocalDate().minusDays(DAY_SLOTS - 1).atStartOfDay();
+        boolean complete = false;
+
+        try {
+            for (List<ProductSales> rows : List.of(
+                    archivedOrderRepository.sumSalesByProduct(Order.OrderStatus.SUCCESSFUL, before),
+                    orderRepository.sumSalesByProduct(Order.OrderStatus.SUCCESSFUL, before))) {
+                for (ProductSales row : rows) {
+                    rebuilt.products.add(row.getProductId(), row.getUnits(), cents(row.getRevenue()));
+                    rebuilt.nameProduct(row.getProductId(), row.getProductName());
+                }
+            }
+
+            try (Stream<OrderLineExport> lines = archivedOrderRepository.streamLines(from, before)) {
+                addOrders(rebuilt, read, lines.iterator());
+            }
+            try (Stream<OrderLineExport> lines = orderRepository.streamLines(from, before)) {
+                addOrders(rebuilt, read, lines.iterator());
+            }
+            complete = true;
+        } finally {
+            synchronized (this) {
+                List<Sale> held = heldDuringRebuild;
+                heldDuringRebuild = null;
+                // A failed rebuild keeps the old figures rather than showing half of them
+                if (complete) {
+                    rollup = rebuilt;
+                }
+                for (Sale sale : held) {
+                    // Skip the orders the rebuild read as successful. A pending order placed before
+                    // the cutoff may complete during the rebuild, so its date says nothing; only
+                    // orders older than the streamed window, pending for months, are taken as read.
+                    if (!complete || (!read.contains(sale.orderId) && !sale.orderDate.isBefore(from))) {
+                        rollup.add(sale);
+                    }
+                }
+            }
+        }
+        logger.info("Sales rollups rebuilt in {} ms", System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Adds a successful order to the rollups once the surrounding transaction
+     * commits; a rolled back checkout leaves them untouched.
+     */
+    public void record(Order order, List<OrderItem> items) {
+        if (order.getStatus() != Order.OrderStatus.SUCCESSFUL) {
+            return;
+        }
+        Sale sale = new Sale(order.getId(), order.getOrderDate(), cents(order.getTotalAmount()), items);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(sale);
+                }
+            });
+        } else {
+            apply(sale);
+        }
+    }
+
+    public SalesSummary getSummary() {
+        return getSummary(LocalDateTime.now());
+    }
+
+    synchronized SalesSummary getSummary(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+
+        long[] days = new long[DAYS_SHOWN];
+        List<String> dayLabels = new ArrayList<>(DAYS_SHOWN);
+        for (int i = 0; i < DAYS_SHOWN; i++) {
+            LocalDate day = today.minusDays(DAYS_SHOWN - 1 - i);
+            days[i] = rollup.dayCents(day.toEpochDay());
+            dayLabels.add(day.format(DAY_LABEL));
+        }
+
+        long[] weeks = new long[WEEKS_SHOWN];
+        List<String> weekLabels = new ArrayList<>(WEEKS_SHOWN);
+        LocalDate thisWeek = today.with(DayOfWeek.MONDAY);
+        for (int i = 0; i < WEEKS_SHOWN; i++) {
+            LocalDate monday = thisWeek.minusWeeks(WEEKS_SHOWN - 1 - i);
+            for (int d = 0; d < 7; d++) {
+                weeks[i] += rollup.dayCents(monday.plusDays(d).toEpochDay());
+            }
+            weekLabels.add("Week of " + monday.format(DAY_LABEL));
+        }
+
+        long[] hours = new long[HOURS_SHOWN];
+        List<String> hourLabels = new ArrayList<>(HOURS_SHOWN);
+        long currentHour = epochHour(now);
+        for (int i = 0; i < HOURS_SHOWN; i++) {
+            long hour = currentHour - (HOURS_SHOWN - 1 - i);
+            hours[i] = rollup.hourOrders(hour);
+            hourLabels.add(now.minusHours(HOURS_SHOWN - 1 - i).format(HOUR_LABEL));
+        }
+
+        long orders = 0;
+        long units = 0;
+        long revenue = 0;
+        for (int i = 0; i < WINDOW_DAYS; i++) {
+            long day = today.minusDays(i).toEpochDay();
+            orders += rollup.dayOrders(day);
+            units += rollup.dayUnits(day);
+            revenue += rollup.dayCents(day);
+        }
+
+        List<ProductSales> top = new ArrayList<>(TOP_PRODUCTS);
+        for (int slot : rollup.products.top(TOP_PRODUCTS)) {
+            long productId = rollup.products.keys[slot];
+            top.add(new ProductSales(productId, rollup.productNames.get(productId),
+                    rollup.products.units[slot], BigDecimal.valueOf(rollup.products.cents[slot], 2)));
+        }
+
+        return new SalesSummary(buckets(dayLabels, days, 2), buckets(weekLabels, weeks, 2),
+                buckets(hourLabels, hours, 0), top, orders, units, BigDecimal.valueOf(revenue, 2), WINDOW_DAYS);
+    }
+
+    private synchronized void apply(Sale sale) {
+        if (heldDuringRebuild != null) {
+            heldDuringRebuild.add(sale);
+        } else {
+            rollup.add(sale);
+        }
+    }
+
+    // Lines arrive ordered by order, so each order is added when its last line has been seen
+    private static void addOrders(Rollup target, OrderIds read, Iterator<OrderLineExport> lines) {
+        OrderLineExport first = null;
+        long units = 0;
+        while (lines.hasNext()) {
+            OrderLineExport line = lines.next();
+            if (first != null && !first.getOrderId().equals(line.getOrderId())) {
+                addOrder(target, read, first, units);
+                units = 0;
+            }
+            if (first == null || !first.getOrderId().equals(line.getOrderId())) {
+                first = line;
+            }
+            units += line.getQuantity() != null ? line.getQuantity() : 0;
+        }
+        if (first != null) {
+            addOrder(target, read, first, units);
+        }
+    }
+
+    private static void addOrder(Rollup target, OrderIds read, OrderLineExport line, long units) {
+        if (line.getStatus() == Order.OrderStatus.SUCCESSFUL) {
+            target.addOrder(line.getOrderDate(), cents(line.getOrderTotal()), units);
+            read.add(line.getOrderId());
+        }
+    }
+
+    private static List<SalesSummary.Bucket> buckets(List<String> labels, long[] values, int scale) {
+        long max = Arrays.stream(values).max().orElse(0);
+        List<SalesSummary.Bucket> buckets = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            int percent = max == 0 ? 0 : (int) (values[i] * 100 / max);
+            buckets.add(new SalesSummary.Bucket(labels.get(i), BigDecimal.valueOf(values[i], scale), percent));
+        }
+        return buckets;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValue();
+    }
+
+    private static long epochHour(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * 24 + time.getHour();
+    }
+
+    // One committed order, reduced to what the rollups need
+    private static final class Sale {
+        private final long orderId;
+        private final LocalDateTime orderDate;
+        private final long cents;
+        private final long[] productIds;
+        private final long[] units;
+        private final long[] lineCents;
+        private final String[] names;
+
+        private Sale(Long orderId, LocalDateTime orderDate, long cents, List<OrderItem> items) {
+            this.orderId = orderId != null ? orderId : 0;
+            this.orderDate = orderDate;
+            this.cents = cents;
+            int n = items.size();
+            this.productIds = new long[n];
+            this.units = new long[n];
+            this.lineCents = new long[n];
+            this.names = new String[n];
+            for (int i = 0; i < n; i++) {
+                OrderItem item = items.get(i);
+                productIds[i] = item.getProductId();
+                units[i] = item.getQuantity();
+                lineCents[i] = cents(item.getPrice()) * item.getQuantity();
+                names[i] = item.getProductName();
+            }
+        }
+    }
+
+    private static final class Rollup {
+        private final long[] dayKeys = new long[DAY_SLOTS];
+        private final long[] dayOrders = new long[DAY_SLOTS];
+        private final long[] dayUnits = new long[DAY_SLOTS];
+        private final long[] dayCents = new long[DAY_SLOTS];
+        private final long[] hourKeys = new long[HOUR_SLOTS];
+        private final long[] hourOrders = new long[HOUR_SLOTS];
+        private final ProductTotals products = new ProductTotals();
+        private final Map<Long, String> productNames = new HashMap<>();
+
+        private Rollup() {
+            Arrays.fill(dayKeys, Long.MIN_VALUE);
+            Arrays.fill(hourKeys, Long.MIN_VALUE);
+        }
+
+        private void add(Sale sale) {
+            long units = 0;
+            for (int i = 0; i < sale.productIds.length; i++) {
+                products.add(sale.productIds[i], sale.units[i], sale.lineCents[i]);
+                nameProduct(sale.productIds[i], sale.names[i]);
+                units += sale.units[i];
+            }
+            addOrder(sale.orderDate, sale.cents, units);
+        }
+
+        private void addOrder(LocalDateTime orderDate, long cents, long units) {
+            long day = orderDate.toLocalDate().toEpochDay();
+            int slot = claim(dayKeys, day, dayOrders, dayUnits, dayCents);
+            if (slot >= 0) {
+                dayOrders[slot]++;
+                dayUnits[slot] += units;
+                dayCents[slot] += cents;
+            }
+            slot = claim(hourKeys, epochHour(orderDate), hourOrders);
+            if (slot >= 0) {
+                hourOrders[slot]++;
+            }
+        }
+
+        private void nameProduct(long productId, String name) {
+            if (name != null && !name.equals(productNames.get(productId))) {
+                productNames.put(productId, name);
+            }
+        }
+
+        private long dayOrders(long day) {
+            int slot = slot(day, DAY_SLOTS);
+            return dayKeys[slot] == day ? dayOrders[slot] : 0;
+        }
+
+        private long dayUnits(long day) {
+            int slot = slot(day, DAY_SLOTS);
+            return dayKeys[slot] == day ? dayUnits[slot] : 0;
+        }
+
+        private long dayCents(long day) {
+            int slot = slot(day, DAY_SLOTS);
+            return dayKeys[slot] == day ? dayCents[slot] : 0;
+        }
+
+        private long hourOrders(long hour) {
+            int slot = slot(hour, HOUR_SLOTS);
+            return hourKeys[slot] == hour ? hourOrders[slot] : 0;
+        }
+
+        // Slot for key, recycled if it still holds an older period; -1 if key is older than the ring
+        private static int claim(long[] keys, long key, long[]... counters) {
+            int slot = slot(key, keys.length);
+            if (keys[slot] == key) {
+                return slot;
+            }
+            if (keys[slot] > key) {
+                return -1;
+            }
+            keys[slot] = key;
+            for (long[] counter : counters) {
+                counter[slot] = 0;
+            }
+            return slot;
+        }
+
+        private static int slot(long key, int size) {
+            return (int) Math.floorMod(key, (long) size);
+        }
+    }
+
+    // Open-addressing map from product id to units and revenue in cents; ids are never 0
+    private static final class ProductTotals {
+        private long[] keys = new long[256];
+        private long[] units = new long[256];
+        private long[] cents = new long[256];
+        private int size;
+
+        private void add(long productId, long addUnits, long addCents) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int slot = find(keys, productId);
+            if (keys[slot] == 0) {
+                keys[slot] = productId;
+                size++;
+            }
+            units[slot] += addUnits;
+            cents[slot] += addCents;
+        }
+
+        // Slots of the n best sellers by units, best first
+        private List<Integer> top(int n) {
+            PriorityQueue<Integer> best = new PriorityQueue<>(n + 1,
+                    (a, b) -> units[a] != units[b] ? Long.compare(units[a], units[b]) : Long.compare(keys[b], keys[a]));
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    best.add(slot);
+                    if (best.size() > n) {
+                        best.poll();
+                    }
+                }
+            }
+            List<Integer> slots = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                slots.add(0, best.poll());
+            }
+            return slots;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldUnits = units;
+            long[] oldCents = cents;
+            keys = new long[oldKeys.length * 2];
+            units = new long[keys.length];
+            cents = new long[keys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = find(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    units[slot] = oldUnits[i];
+                    cents[slot] = oldCents[i];
+                }
+            }
+        }
+
+        private static int find(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    // Open-addressing set of the order ids a rebuild read; ids are never 0
+    private static final class OrderIds {
+        private long[] keys = new long[1024];
+        private int size;
+
+        private void add(long orderId) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int slot = ProductTotals.find(keys, orderId);
+            if (keys[slot] == 0) {
+                keys[slot] = orderId;
+                size++;
+            }
+        }
+
+        private boolean contains(long orderId) {
+            return orderId != 0 && keys[ProductTotals.find(keys, orderId)] == orderId;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            keys = new long[oldKeys.length * 2];
+            for (long key : oldKeys) {
+                if (key != 0) {
+                    keys[ProductTotals.find(keys, key)] = key;
+                }
+            }
+        }
+    }
+}
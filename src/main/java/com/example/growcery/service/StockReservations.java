@@ -0,0 +1,192 @@
+package com.example.growcery.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-bounded holds on product stock for items sitting in carts. A hold lives
+ * for the configured TTL from the last time its cart line was touched. Expiry is
+ * driven by a hashed timer wheel: every tick looks at one bucket only, so
+ * releasing holds costs nothing per cart and never polls the database.
+ */
+@Component
+public class StockReservations {
+
+    private final long ttlTicks;
+    private final List<Set<Reservation>> wheel;
+    private long currentTick;
+
+    private final Map<Long, ProductHolds> holds = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> productsByCustomer = new ConcurrentHashMap<>();
+
+    public StockReservations(@Value("${growcery.reservations.ttl-seconds:900}") long ttlSeconds,
+                             @Value("${growcery.reservations.tick-millis:1000}") long tickMillis,
+                             @Value("${growcery.reservations.wheel-size:512}") int wheelSize) {
+        this.ttlTicks = Math.max(1, ttlSeconds * 1000 / Math.max(1, tickMillis));
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Sets the customer's hold on a product to exactly {@code quantity}, as long as
+     * that fits into {@code stock} next to everyone else's holds.
+     */
+    public boolean reserve(Long customerId, Long productId, int quantity, int stock) {
+        ProductHolds product = holds.computeIfAbsent(productId, id -> new ProductHolds());
+        synchronized (product) {
+            Reservation existing = product.byCustomer.get(customerId);
+            int own = existing != null ? existing.quantity : 0;
+            if (quantity > own && product.total - own + quantity > stock) {
+                return false;
+            }
+
+            Reservation reservation = existing != null ? existing : new Reservation(customerId, productId);
+            product.total += quantity - own;
+            reservation.quantity = quantity;
+            product.byCustomer.put(customerId, reservation);
+            productsByCustomer.computeIfAbsent(customerId, id -> ConcurrentHashMap.newKeySet()).add(productId);
+            schedule(reservation);
+            return true;
+        }
+    }
+
+    public void release(Long customerId, Long productId) {
+        ProductHolds product = holds.get(productId);
+        if (product == null) {
+            return;
+        }
+        synchronized (product) {
+            Reservation reservation = product.byCustomer.remove(customerId);
+            if (reservation != null) {
+                product.total -= reservation.quantity;
+                unschedule(reservation);
+            }
+        }
+        Set<Long> products = productsByCustomer.get(customerId);
+        if (products != null) {
+            products.remove(productId);
+        }
+    }
+
+    public void releaseAll(Long customerId) {
+        Set<Long> products = productsByCustomer.remove(customerId);
+        if (products != null) {
+            for (Long productId : products) {
+                release(customerId, productId);
+            }
+        }
+    }
+
+    public int reserved(Long productId) {
+        ProductHolds product = holds.get(productId);
+        if (product == null) {
+            return 0;
+        }
+        synchronized (product) {
+            return product.total;
+        }
+    }
+
+    public int reservedBy(Long productId, Long customerId) {
+        ProductHolds product = holds.get(productId);
+        if (product == null) {
+            return 0;
+        }
+        synchronized (product) {
+            Reservation own = product.byCustomer.get(customerId);
+            return own != null ? own.quantity : 0;
+        }
+    }
+
+    public int reservedByOthers(Long productId, Long customerId) {
+        ProductHolds product = holds.get(productId);
+        if (product == null) {
+            return 0;
+        }
+        synchronized (product) {
+            Reservation own = product.byCustomer.get(customerId);
+            return product.total - (own != null ? own.quantity : 0);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${growcery.reservations.tick-millis:1000}")
+    public void tick() {
+        List<Reservation> expired = new ArrayList<>();
+        long now;
+        synchronized (wheel) {
+            now = ++currentTick;
+            Set<Reservation> bucket = wheel.get((int) (now % wheel.size()));
+            // A bucket also holds entries due in later rotations; only take the ones due now
+            bucket.removeIf(reservation -> {
+                if (reservation.deadlineTick <= now) {
+                    expired.add(reservation);
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        for (Reservation reservation : expired) {
+            ProductHolds product = holds.get(reservation.productId);
+            if (product == null) {
+                continue;
+            }
+            synchronized (product) {
+                // Skip holds that were renewed or released after we picked them up
+                if (product.byCustomer.get(reservation.customerId) == reservation
+                        && reservation.deadlineTick <= now) {
+                    product.byCustomer.remove(reservation.customerId);
+                    product.total -= reservation.quantity;
+                    Set<Long> products = productsByCustomer.get(reservation.customerId);
+                    if (products != null) {
+                        products.remove(reservation.productId);
+                    }
+                }
+            }
+        }
+    }
+
+    private void schedule(Reservation reservation) {
+        synchronized (wheel) {
+            if (reservation.deadlineTick > 0) {
+                wheel.get((int) (reservation.deadlineTick % wheel.size())).remove(reservation);
+            }
+            reservation.deadlineTick = currentTick + ttlTicks;
+            wheel.get((int) (reservation.deadlineTick % wheel.size())).add(reservation);
+        }
+    }
+
+    private void unschedule(Reservation reservation) {
+        synchronized (wheel) {
+            wheel.get((int) (reservation.deadlineTick % wheel.size())).remove(reservation);
+        }
+    }
+
+    private static final class ProductHolds {
+        private final Map<Long, Reservation> byCustomer = new HashMap<>();
+        private int total;
+    }
+
+    private static final class Reservation {
+        private final Long customerId;
+        private final Long productId;
+        private int quantity;
+        private long deadlineTick;
+
+        private Reservation(Long customerId, Long productId) {
+            this.customerId = customerId;
+            this.productId = productId;
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.growcery.service;
 
+import com.example.growcery.dto.CustomerPage;
+import com.example.growcery.dto.CustomerSummary;
 import com.example.growcery.dto.UserDTO;
+import com.example.growcery.model.Order;
 import com.example.growcery.model.Product;
 import com.example.growcery.model.User;
 import com.example.growcery.repository.ProductRepository;
 import com.example.growcery.repository.UserRepository;
 import jakarta.annotation.PostConstruct;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
@@ -18,11 +25,16 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ProductRepository productRepository;
+    private final DashboardCounters dashboardCounters;
+    private final OrderArchive orderArchive;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ProductRepository productRepository) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ProductRepository productRepository,
+                       DashboardCounters dashboardCounters, OrderArchive orderArchive) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.productRepository = productRepository;
+        this.dashboardCounters = dashboardCounters;
+        this.orderArchive = orderArchive;
     }
 
     @PostConstruct
@@ -46,14 +58,33 @@ public class UserService {
         user.setRole(User.Role.CUSTOMER);
         user.setAddress(userDTO.getAddress());
         user.setMobileNumber(userDTO.getMobileNumber());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        dashboardCounters.customerRegistered();
+        return saved;
     }
 
-    public List<User> getAllCustomers() {
-        return userRepository.findAll()
-                .stream()
-                .filter(user -> user.getRole() == User.Role.CUSTOMER)
-                .toList();
+    // Customers after the given id, optionally only those whose username starts with search
+    public CustomerPage getCustomerPage(String search, Long afterId, Integer size) {
+        int pageSize = CustomerPage.clampPageSize(size);
+        String prefix = search == null || search.isBlank() ? null
+                : search.trim().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        // Fetch one extra row to know whether there is a next page
+        List<CustomerSummary> rows = userRepository.findSummariesAfter(User.Role.CUSTOMER, Order.OrderStatus.SUCCESSFUL,
+                afterId != null ? afterId : 0L, prefix, PageRequest.of(0, pageSize + 1));
+
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).getId();
+        }
+
+        // Orders moved to the archive still belong to the customer's history
+        Map<Long, CustomerSummary> byId = rows.stream()
+                .collect(Collectors.toMap(CustomerSummary::getId, Function.identity()));
+        for (CustomerSummary archived : orderArchive.sumByCustomers(byId.keySet())) {
+            byId.get(archived.getId()).addOrders(archived);
+        }
+        return new CustomerPage(rows, pageSize, nextCursor);
     }
 
     public Optional<User> getUserByUsername(String username) {
@@ -0,0 +1,42 @@
+package com.example.growcery.config;
+
+import com.example.growcery.model.CartItem;
+import com.example.growcery.repository.CartItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The whole application, so the alignment runs at startup against the test database's real sequences
+@SpringBootTest
+class IdSequenceInitializerTests {
+
+	@Autowired
+	private IdSequenceInitializer idSequenceInitializer;
+
+	@Autowired
+	private CartItemRepository cartItemRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		cartItemRepository.deleteAll();
+	}
+
+	@Test
+	void sequenceIsMovedPastIdsAlreadyInUse() {
+		// A row written while the table still had an IDENTITY column
+		jdbcTemplate.update("INSERT INTO cart_items (id, customer_id, product_id, quantity) VALUES (5000, 1, 1, 1)");
+
+		idSequenceInitializer.alignSequences();
+		CartItem saved = cartItemRepository.save(new CartItem(null, 2L, 1L, 1, null));
+
+		assertTrue(saved.getId() > 5000, "expected an id past the existing row, got " + saved.getId());
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.example.growcery.controller;
+
+import com.example.growcery.dto.OrderView;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.User;
+import com.example.growcery.service.AsyncCheckoutService;
+import com.example.growcery.service.CheckoutBatcher;
+import com.example.growcery.service.CheckoutRequestService;
+import com.example.growcery.service.OrderService;
+import com.example.growcery.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OrderController.class)
+class OrderControllerTests {
+
+	private static final long ORDER_ID = 5L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private OrderService orderService;
+
+	@MockBean
+	private UserService userService;
+
+	@MockBean
+	private AsyncCheckoutService asyncCheckoutService;
+
+	@MockBean
+	private CheckoutBatcher checkoutBatcher;
+
+	@MockBean
+	private CheckoutRequestService checkoutRequestService;
+
+	private OrderView view;
+
+	@BeforeEach
+	void setUp() {
+		Order order = new Order();
+		order.setId(ORDER_ID);
+		order.setCustomerId(1L);
+		order.setOrderDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+		order.setTotalAmount(new BigDecimal("3.00"));
+		order.setStatus(Order.OrderStatus.SUCCESSFUL);
+		view = new OrderView(order, List.of());
+		when(orderService.getOrderView(ORDER_ID)).thenReturn(Optional.of(view));
+		when(userService.getUserByUsername("ann")).thenReturn(Optional.of(customer(1L, "ann")));
+		when(userService.getUserByUsername("bob")).thenReturn(Optional.of(customer(2L, "bob")));
+	}
+
+	@Test
+	@WithMockUser(username = "ann")
+	void ownerRevalidatesTheirOwnOrder() throws Exception {
+		MockHttpSession session = new MockHttpSession();
+		mockMvc.perform(get("/orders/{id}", ORDER_ID).session(session)
+						.header(HttpHeaders.IF_NONE_MATCH, view.etagFor(session.getId())))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	@WithMockUser(username = "bob")
+	void anotherCustomersTagNeverGetsANotModified() throws Exception {
+		// Even a tag that matches bob's own session must not confirm that the order exists
+		MockHttpSession session = new MockHttpSession();
+		mockMvc.perform(get("/orders/{id}", ORDER_ID).session(session)
+						.header(HttpHeaders.IF_NONE_MATCH, view.etagFor(session.getId())))
+				.andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrl("/orders"));
+	}
+
+	@Test
+	void adminTagFollowsTheCustomersDetails() {
+		User customer = customer(1L, "ann");
+		String before = view.etagFor("session", customer);
+		customer.setAddress("2 New Street");
+		assertNotEquals(before, view.etagFor("session", customer));
+	}
+
+	private static User customer(Long id, String username) {
+		User user = new User();
+		user.setId(id);
+		user.setUsername(username);
+		user.setRole(User.Role.CUSTOMER);
+		user.setAddress("1 Old Street");
+		return user;
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.example.growcery.repository;
+
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderItemBatchInsertTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderItemBatchInsertTests.class);
+	private static final int ORDERS = 50;
+	private static final int LINES_PER_ORDER = 30;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void orderLinesAreInsertedInBatches() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// Before: IDENTITY ids, so every line is its own insert to learn its id. A session-local
+		// table with the columns order_items used to have; TRANSACTIONAL keeps the test's transaction open.
+		entityManager.createNativeQuery("CREATE LOCAL TEMPORARY TABLE IF NOT EXISTS identity_order_items (" +
+				"id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, order_id BIGINT, product_id BIGINT, " +
+				"quantity INT, price DECIMAL(10, 2)) TRANSACTIONAL").executeUpdate();
+		statistics.clear();
+		long began = System.nanoTime();
+		for (int o = 0; o < ORDERS; o++) {
+			Order order = orderRepository.save(newOrder());
+			for (int i = 0; i < LINES_PER_ORDER; i++) {
+				entityManager.createNativeQuery("INSERT INTO identity_order_items (order_id, product_id, quantity, price) " +
+								"VALUES (:orderId, :productId, 1, 1)")
+						.setParameter("orderId", order.getId())
+						.setParameter("productId", (long) i + 1)
+						.executeUpdate();
+			}
+			entityManager.flush();
+		}
+		long identity = System.nanoTime() - began;
+		long identityStatements = statistics.getPrepareStatementCount();
+
+		// After: pooled ids and saveAll, flushed once per order in JDBC batches
+		statistics.clear();
+		began = System.nanoTime();
+		for (int o = 0; o < ORDERS; o++) {
+			Order order = orderRepository.save(newOrder());
+			orderItemRepository.saveAll(newItems(order.getId()));
+			entityManager.flush();
+		}
+		long batched = System.nanoTime() - began;
+		long batchedStatements = statistics.getPrepareStatementCount();
+
+		assertEquals(ORDERS * LINES_PER_ORDER, orderItemRepository.count());
+		assertTrue(identityStatements >= (long) ORDERS * LINES_PER_ORDER,
+				"expected one insert per IDENTITY line, got " + identityStatements);
+		// One order insert and one line batch per flush, plus a sequence call per 50 ids
+		assertTrue(batchedStatements <= 3L * ORDERS,
+				"expected batched inserts, got " + batchedStatements + " statements");
+
+		int rows = ORDERS * (LINES_PER_ORDER + 1);
+		logger.info("IDENTITY: {} rows, {} statements, {} rows/s in {} ms", rows, identityStatements,
+				Math.round(rows / (identity / 1e9)), TimeUnit.NANOSECONDS.toMillis(identity));
+		logger.info("Batched:  {} rows, {} statements, {} rows/s in {} ms", rows, batchedStatements,
+				Math.round(rows / (batched / 1e9)), TimeUnit.NANOSECONDS.toMillis(batched));
+	}
+
+	private Order newOrder() {
+		Order order = new Order();
+		order.setCustomerId(1L);
+		order.setOrderDate(LocalDateTime.now());
+		order.setTotalAmount(new BigDecimal("30.00"));
+		return order;
+	}
+
+	private List<OrderItem> newItems(Long orderId) {
+		List<OrderItem> items = new ArrayList<>(LINES_PER_ORDER);
+		for (int i = 0; i < LINES_PER_ORDER; i++) {
+			OrderItem item = new OrderItem();
+			item.setOrderId(orderId);
+			item.setProductId((long) i + 1);
+			item.setQuantity(1);
+			item.setPrice(BigDecimal.ONE);
+			items.add(item);
+		}
+		return items;
+	}
+
+}
@@ -0,0 +1,185 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.CheckoutResult;
+import com.example.growcery.model.CartItem;
+import com.example.growcery.model.Product;
+import com.example.growcery.repository.CartItemRepository;
+import com.example.growcery.repository.OrderItemRepository;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ServiceTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CheckoutBatcherTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(CheckoutBatcherTests.class);
+
+	private static final int THREADS = 32;
+	private static final int CUSTOMERS = 512;
+	private static final int PRODUCTS = 8;
+	private static final int LINES_PER_CART = 3;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CartItemRepository cartItemRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@AfterEach
+	void cleanUp() {
+		orderItemRepository.deleteAll();
+		orderRepository.deleteAll();
+		cartItemRepository.deleteAll();
+		productRepository.deleteAll();
+	}
+
+	@Test
+	void refusedCartsDoNotFailTheBatch() {
+		Product product = saveProduct(5);
+		// Lines written straight to the table carry no reservation, so ten carts compete for five units
+		List<Long> customers = new ArrayList<>();
+		for (long customerId = 1; customerId <= 10; customerId++) {
+			cartItemRepository.save(new CartItem(null, customerId, product.getId(), 1, null));
+			customers.add(customerId);
+		}
+		customers.add(1L);
+
+		List<CheckoutResult> results = orderService.createOrdersFromCarts(customers);
+
+		assertEquals(11, results.size());
+		for (int i = 0; i < 5; i++) {
+			assertTrue(results.get(i).isSuccess());
+		}
+		for (int i = 5; i < 10; i++) {
+			assertFalse(results.get(i).isSuccess());
+			assertEquals("Some products in your cart are out of stock", results.get(i).getError());
+		}
+		assertEquals("Cart is empty", results.get(10).getError());
+		assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+		assertEquals(5, orderRepository.count());
+		assertEquals(5, cartItemRepository.count());
+	}
+
+	@Test
+	void batchedCheckoutsMatchSingleCheckouts() throws Exception {
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			products.add(saveProduct(CUSTOMERS * LINES_PER_CART * 2));
+		}
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		fillCarts(products, 0);
+		statistics.clear();
+		int single = checkoutAll(new CheckoutBatcher(orderService, false, 1, 0), 0, "Single checkouts");
+		long singleStatements = statistics.getPrepareStatementCount();
+
+		fillCarts(products, CUSTOMERS);
+		CheckoutBatcher batcher = new CheckoutBatcher(orderService, true, 32, 5);
+		batcher.start();
+		statistics.clear();
+		int batched = checkoutAll(batcher, CUSTOMERS, "Batched checkouts");
+		long batchedStatements = statistics.getPrepareStatementCount();
+		batcher.shutdown();
+		logger.info("Statements: {} single, {} batched", singleStatements, batchedStatements);
+
+		assertEquals(CUSTOMERS, single);
+		assertEquals(CUSTOMERS, batched);
+		assertEquals(CUSTOMERS * 2L, orderRepository.count());
+		assertEquals(0, cartItemRepository.count());
+		int sold = 0;
+		for (Product product : products) {
+			sold += CUSTOMERS * LINES_PER_CART * 2 - productRepository.findById(product.getId()).orElseThrow().getStock();
+		}
+		assertEquals(CUSTOMERS * LINES_PER_CART * 2, sold);
+		// Batches share the order and line inserts and take one decrement per product
+		assertTrue(batchedStatements < singleStatements,
+				"expected fewer statements when batching, got " + batchedStatements + " vs " + singleStatements);
+	}
+
+	private Product saveProduct(int stock) {
+		return productService.updateProduct(new Product(null, "Mango", null, Product.Category.FRUIT,
+				new BigDecimal("1.50"), stock, null));
+	}
+
+	private void fillCarts(List<Product> products, int firstCustomer) {
+		for (int c = 0; c < CUSTOMERS; c++) {
+			long customerId = firstCustomer + c + 1;
+			for (int l = 0; l < LINES_PER_CART; l++) {
+				assertTrue(cartService.addToCart(customerId, products.get((c + l) % products.size()).getId(), 1));
+			}
+		}
+	}
+
+	private int checkoutAll(CheckoutBatcher batcher, int firstCustomer, String label) throws Exception {
+		AtomicInteger placed = new AtomicInteger();
+		AtomicInteger next = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> workers = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			workers.add(pool.submit(() -> {
+				start.await();
+				for (int c = next.getAndIncrement(); c < CUSTOMERS; c = next.getAndIncrement()) {
+					batcher.checkout(firstCustomer + c + 1L);
+					placed.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+
+		long began = System.nanoTime();
+		start.countDown();
+		for (Future<?> worker : workers) {
+			worker.get(120, TimeUnit.SECONDS);
+		}
+		long elapsed = System.nanoTime() - began;
+		pool.shutdown();
+
+		logger.info("{}: {} orders from {} threads in {} ms ({} orders/s)", label, CUSTOMERS, THREADS,
+				TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(CUSTOMERS / (elapsed / 1e9)));
+		return placed.get();
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.example.growcery.service;
+
+import com.example.growcery.model.Order;
+import com.example.growcery.repository.CheckoutRequestRepository;
+import com.example.growcery.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ServiceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CheckoutRequestServiceTests {
+
+	@Autowired
+	private CheckoutRequestService checkoutRequestService;
+
+	@Autowired
+	private CheckoutRequestRepository checkoutRequestRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@AfterEach
+	void cleanUp() {
+		checkoutRequestRepository.deleteAll();
+		orderRepository.deleteAll();
+	}
+
+	@Test
+	void repeatedKeyReturnsTheFirstOrder() throws Exception {
+		AtomicInteger checkouts = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<Order>> submits = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			submits.add(pool.submit(() -> checkoutRequestService.placeOnce("key-1", 7L, () -> {
+				checkouts.incrementAndGet();
+				return placeOrder(7L);
+			})));
+		}
+
+		Long orderId = submits.get(0).get(30, TimeUnit.SECONDS).getId();
+		for (Future<Order> submit : submits) {
+			assertEquals(orderId, submit.get(30, TimeUnit.SECONDS).getId());
+		}
+		pool.shutdown();
+
+		assertEquals(1, checkouts.get());
+		assertEquals(1, orderRepository.count());
+	}
+
+	@Test
+	void failedCheckoutGivesTheKeyBack() {
+		assertThrows(RuntimeException.class, () -> checkoutRequestService.placeOnce("key-2", 7L, () -> {
+			throw new RuntimeException("Cart is empty");
+		}));
+
+		Order order = checkoutRequestService.placeOnce("key-2", 7L, () -> placeOrder(7L));
+
+		assertEquals(order.getId(), checkoutRequestRepository.findById("key-2").orElseThrow().getOrderId());
+		assertThrows(RuntimeException.class, () -> checkoutRequestService.placeOnce("key-2", 8L, () -> placeOrder(8L)));
+	}
+
+	@Test
+	void abandonedClaimIsReclaimed() {
+		// Claimed by a checkout that never recorded its order
+		checkoutRequestRepository.claim("key-3", 7L, LocalDateTime.now().minusHours(1));
+
+		Order order = checkoutRequestService.placeOnce("key-3", 7L, () -> placeOrder(7L));
+
+		assertEquals(order.getId(), checkoutRequestRepository.findById("key-3").orElseThrow().getOrderId());
+	}
+
+	private Order placeOrder(Long customerId) {
+		Order order = new Order();
+		order.setCustomerId(customerId);
+		order.setOrderDate(LocalDateTime.now());
+		order.setTotalAmount(new BigDecimal("3.00"));
+		return orderRepository.save(order);
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.CustomerPage;
+import com.example.growcery.dto.CustomerSummary;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.User;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.ProductRepository;
+import com.example.growcery.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ServiceTest
+class CustomerListingTests {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private DashboardCounters dashboardCounters;
+
+	@Autowired
+	private OrderArchive orderArchive;
+
+	@Test
+	void pagesCustomersWithTheirOrderTotals() {
+		UserService userService = new UserService(userRepository, NoOpPasswordEncoder.getInstance(),
+				productRepository, dashboardCounters, orderArchive);
+		saveUser("boss", User.Role.ADMIN);
+		Long ann = saveUser("ann", User.Role.CUSTOMER);
+		for (int i = 0; i < 4; i++) {
+			saveUser("cust_" + i, User.Role.CUSTOMER);
+		}
+		saveUser("custard", User.Role.CUSTOMER);
+
+		LocalDateTime now = LocalDateTime.now().withNano(0);
+		saveOrder(ann, now.minusYears(2), "10.00", Order.OrderStatus.SUCCESSFUL);
+		saveOrder(ann, now.minusDays(1), "5.50", Order.OrderStatus.SUCCESSFUL);
+		saveOrder(ann, now, "99.00", Order.OrderStatus.FAILED);
+		orderRepository.flush();
+		// The old order moves to the archive and must still be counted
+		orderArchive.archiveChunk(now.minusYears(1), 10);
+
+		List<CustomerSummary> seen = new ArrayList<>();
+		CustomerPage page = userService.getCustomerPage(null, null, 4);
+		seen.addAll(page.getItems());
+		assertEquals(4, page.getItems().size());
+		page = userService.getCustomerPage(null, page.getNextCursor(), 4);
+		seen.addAll(page.getItems());
+		assertFalse(page.isHasNext());
+		assertEquals(List.of("ann", "cust_0", "cust_1", "cust_2", "cust_3", "custard"),
+				seen.stream().map(CustomerSummary::getUsername).toList());
+
+		CustomerSummary first = seen.get(0);
+		assertEquals(2, first.getOrderCount());
+		assertEquals(new BigDecimal("15.50"), first.getLifetimeSpend());
+		assertEquals(now.minusDays(1), first.getLastOrderDate());
+		assertEquals(0, seen.get(1).getOrderCount());
+		assertNull(seen.get(1).getLastOrderDate());
+
+		// LIKE wildcards in the search are matched literally
+		assertEquals(List.of("cust_0", "cust_1", "cust_2", "cust_3"), userService.getCustomerPage("cust_", null, null)
+				.getItems().stream().map(CustomerSummary::getUsername).toList());
+	}
+
+	private Long saveUser(String username, User.Role role) {
+		User user = new User();
+		user.setUsername(username);
+		user.setPassword("secret");
+		user.setRole(role);
+		user.setAddress("1 Market Street");
+		user.setMobileNumber("01234567890123456789");
+		return userRepository.save(user).getId();
+	}
+
+	private void saveOrder(Long customerId, LocalDateTime orderDate, String total, Order.OrderStatus status) {
+		Order order = new Order();
+		order.setCustomerId(customerId);
+		order.setOrderDate(orderDate);
+		order.setTotalAmount(new BigDecimal(total));
+		order.setStatus(status);
+		orderRepository.save(order);
+	}
+
+}
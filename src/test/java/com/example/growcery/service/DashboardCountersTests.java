@@ -0,0 +1,69 @@
+package com.example.growcery.service;
+
+import com.example.growcery.model.Order;
+import com.example.growcery.model.User;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ServiceTest
+class DashboardCountersTests {
+
+	@Autowired
+	private DashboardCounters dashboardCounters;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderArchive orderArchive;
+
+	@Test
+	void reconcileCountsCustomersOnlyAndKeepsArchivedOrders() {
+		saveUser("admin2", User.Role.ADMIN);
+		saveUser("ann", User.Role.CUSTOMER);
+		saveUser("bob", User.Role.CUSTOMER);
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < 4; i++) {
+			Order order = new Order();
+			order.setCustomerId(1L);
+			order.setOrderDate(now.minusYears(i));
+			order.setTotalAmount(BigDecimal.ONE);
+			order.setStatus(Order.OrderStatus.SUCCESSFUL);
+			orderRepository.save(order);
+		}
+		orderRepository.flush();
+		orderArchive.archiveChunk(now.minusMonths(6), 10);
+
+		dashboardCounters.reconcile();
+		assertEquals(2, dashboardCounters.getCustomersCount());
+		assertEquals(4, dashboardCounters.getOrdersCount());
+		assertEquals(0, dashboardCounters.getProductsCount());
+
+		// The test transaction never commits, so its changes must not show
+		dashboardCounters.ordersPlaced(3);
+		dashboardCounters.customerRegistered();
+		assertEquals(4, dashboardCounters.getOrdersCount());
+		assertEquals(2, dashboardCounters.getCustomersCount());
+	}
+
+	private void saveUser(String username, User.Role role) {
+		User user = new User();
+		user.setUsername(username);
+		user.setPassword("secret");
+		user.setRole(role);
+		user.setAddress("1 Market Street");
+		user.setMobileNumber("01234567890123456789");
+		userRepository.save(user);
+	}
+
+}
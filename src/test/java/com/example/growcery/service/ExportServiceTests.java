@@ -0,0 +1,94 @@
+package com.example.growcery.service;
+
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import com.example.growcery.repository.OrderItemRepository;
+import com.example.growcery.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ServiceTest
+class ExportServiceTests {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private OrderArchive orderArchive;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void exportsOnlyLinesInRangeIncludingArchived() throws Exception {
+		LocalDateTime march = LocalDateTime.of(2023, 3, 1, 0, 0);
+		saveOrder(march.minusDays(1), "Before");
+		saveOrder(march.plusDays(2), "Apples, \"Gala\"");
+		saveOrder(march.plusDays(20), "Pears");
+		saveOrder(march.plusMonths(1), "After");
+		entityManager.flush();
+
+		// The first March order goes cold, it must still be exported
+		orderArchive.archiveChunk(march.plusDays(3), 10);
+		entityManager.clear();
+
+		StringWriter out = new StringWriter();
+		long rows = exportService.writeOrderLines(march, march.plusMonths(1), ExportService.Format.CSV, out);
+
+		List<String> lines = out.toString().lines().toList();
+		assertEquals(2, rows);
+		assertEquals(3, lines.size());
+		assertTrue(lines.get(0).startsWith("order_id,order_date"));
+		assertTrue(lines.get(1).contains(",\"Apples, \"\"Gala\"\"\","));
+		assertTrue(lines.get(1).endsWith(",2,2.10,4.20"));
+		assertTrue(lines.get(2).contains(",Pears,"));
+	}
+
+	@Test
+	void jsonlHasOneObjectPerLine() throws Exception {
+		LocalDateTime day = LocalDateTime.of(2023, 5, 10, 9, 30);
+		saveOrder(day, "Kiwi");
+		entityManager.flush();
+
+		StringWriter out = new StringWriter();
+		exportService.writeOrderLines(day.minusDays(1), day.plusDays(1), ExportService.Format.JSONL, out);
+
+		List<String> lines = out.toString().lines().toList();
+		assertEquals(1, lines.size());
+		assertTrue(lines.get(0).contains("\"order_date\":\"2023-05-10T09:30\""));
+		assertTrue(lines.get(0).contains("\"product_name\":\"Kiwi\""));
+	}
+
+	private void saveOrder(LocalDateTime orderDate, String productName) {
+		Order order = new Order();
+		order.setCustomerId(1L);
+		order.setOrderDate(orderDate);
+		order.setStatus(Order.OrderStatus.SUCCESSFUL);
+		order.setTotalAmount(new BigDecimal("4.20"));
+		order = orderRepository.save(order);
+
+		OrderItem item = new OrderItem();
+		item.setOrderId(order.getId());
+		item.setProductId(7L);
+		item.setProductName(productName);
+		item.setQuantity(2);
+		item.setPrice(new BigDecimal("2.10"));
+		orderItemRepository.save(item);
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.LowStockEntry;
+import com.example.growcery.dto.StockAlert;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import com.example.growcery.model.Product;
+import com.example.growcery.repository.OrderItemRepository;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ServiceTest
+class LowStockMonitorTests {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private LowStockMonitor lowStockMonitor;
+
+	@Test
+	void productsAreRankedByDaysOfCoverAndCrossingsRaiseAlerts() {
+		Long apple = saveProduct("Apple", 20);
+		Long kiwi = saveProduct("Kiwi", 5);
+		Long leek = saveProduct("Leek", 3);
+		Long plum = saveProduct("Plum", 0);
+		// 14 days of sales: one apple a day, two kiwis a day
+		saveSale(apple, 14);
+		saveSale(kiwi, 28);
+		orderRepository.flush();
+
+		lowStockMonitor.refresh();
+		List<LowStockEntry> watchList = lowStockMonitor.getWatchList(10);
+		assertEquals(List.of(plum, kiwi, apple, leek), watchList.stream().map(LowStockEntry::getProductId).toList());
+		assertEquals(2.5, watchList.get(1).getDaysOfCover(), 0.001);
+		assertTrue(watchList.get(1).isCritical());
+		assertFalse(watchList.get(3).isSelling());
+		// The monitor already loaded the empty catalog at startup, so products showing up low are alerted
+		assertEquals(List.of(kiwi, plum), lowStockMonitor.getRecentAlerts().stream()
+				.map(alert -> alert.getEntry().getProductId()).sorted().toList());
+
+		lowStockMonitor.stockChanged(apple, null, 2);
+		lowStockMonitor.stockChanged(kiwi, null, 50);
+		lowStockMonitor.stockChanged(kiwi, null, 49);
+
+		assertEquals(List.of(plum, apple, kiwi, leek), lowStockMonitor.getWatchList(10).stream()
+				.map(LowStockEntry::getProductId).toList());
+		List<StockAlert> alerts = lowStockMonitor.getRecentAlerts();
+		assertEquals(4, alerts.size());
+		assertEquals(kiwi, alerts.get(0).getEntry().getProductId());
+		assertTrue(alerts.get(0).isRecovered());
+		assertEquals(apple, alerts.get(1).getEntry().getProductId());
+		assertFalse(alerts.get(1).isRecovered());
+		assertEquals(2, alerts.get(1).getEntry().getStock());
+
+		lowStockMonitor.productRemoved(plum);
+		assertEquals(apple, lowStockMonitor.getWatchList(1).get(0).getProductId());
+	}
+
+	private Long saveProduct(String name, int stock) {
+		return productRepository.save(new Product(null, name, null, Product.Category.FRUIT,
+				new BigDecimal("1.00"), stock, null)).getId();
+	}
+
+	private void saveSale(Long productId, int quantity) {
+		Order order = new Order();
+		order.setCustomerId(1L);
+		order.setOrderDate(LocalDateTime.now().minusDays(1));
+		order.setStatus(Order.OrderStatus.SUCCESSFUL);
+		order.setTotalAmount(BigDecimal.valueOf(quantity));
+		order = orderRepository.save(order);
+
+		OrderItem item = new OrderItem();
+		item.setOrderId(order.getId());
+		item.setProductId(productId);
+		item.setQuantity(quantity);
+		item.setPrice(BigDecimal.ONE);
+		orderItemRepository.save(item);
+	}
+
+}
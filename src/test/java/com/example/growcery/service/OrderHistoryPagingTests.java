@@ -0,0 +1,130 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.OrderPage;
+import com.example.growcery.dto.OrderView;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import com.example.growcery.repository.OrderItemRepository;
+import com.example.growcery.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@ServiceTest
+class OrderHistoryPagingTests {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderArchive orderArchive;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void pagesWalkEveryOrderNewestFirst() {
+		// Several orders share a timestamp so the id tie-breaker is exercised
+		LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+		List<Order> mine = new ArrayList<>();
+		for (int i = 0; i < 45; i++) {
+			mine.add(orderRepository.save(newOrder(1L, start.plusMinutes(i / 3))));
+			orderRepository.save(newOrder(2L, start.plusMinutes(i)));
+		}
+		mine.sort(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed());
+
+		List<Long> seen = new ArrayList<>();
+		OrderPage page = orderService.getOrderPage(1L, null, 20);
+		seen.addAll(ids(page));
+		while (page.isHasNext()) {
+			page = orderService.getOrderPage(1L, page.getNextCursor(), 20);
+			seen.addAll(ids(page));
+		}
+
+		assertEquals(mine.stream().map(Order::getId).toList(), seen);
+		assertEquals(5, page.getItems().size());
+		assertFalse(page.isHasNext());
+		assertEquals(90, walk(null));
+	}
+
+	@Test
+	void archivedOrdersStayInHistory() {
+		LocalDateTime start = LocalDateTime.of(2020, 1, 1, 12, 0);
+		List<Order> mine = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			Order order = orderRepository.save(newOrder(1L, start.plusDays(i * 30L)));
+			OrderItem item = new OrderItem();
+			item.setOrderId(order.getId());
+			item.setProductId(99L);
+			item.setProductName("Mango");
+			item.setQuantity(2);
+			item.setPrice(new BigDecimal("2.10"));
+			orderItemRepository.save(item);
+			mine.add(order);
+		}
+		mine.sort(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed());
+		entityManager.flush();
+
+		// Everything from the first year goes cold, in chunks smaller than the backlog
+		int moved = 0;
+		for (int chunk = orderArchive.archiveChunk(start.plusYears(1), 5); chunk > 0;
+			 chunk = orderArchive.archiveChunk(start.plusYears(1), 5)) {
+			moved += chunk;
+		}
+		assertEquals(13, moved);
+		entityManager.clear();
+		assertEquals(17, orderRepository.count());
+
+		List<Long> seen = new ArrayList<>();
+		OrderPage page = orderService.getOrderPage(1L, null, 8);
+		seen.addAll(ids(page));
+		while (page.isHasNext()) {
+			page = orderService.getOrderPage(1L, page.getNextCursor(), 8);
+			seen.addAll(ids(page));
+		}
+		assertEquals(mine.stream().map(Order::getId).toList(), seen);
+
+		Order oldest = mine.get(mine.size() - 1);
+		OrderView view = orderService.getOrderView(oldest.getId()).orElseThrow();
+		assertEquals(oldest.getOrderDate(), view.getOrder().getOrderDate());
+		assertEquals("Mango", view.getItems().get(0).getProductName());
+	}
+
+	private int walk(Long customerId) {
+		OrderPage page = orderService.getOrderPage(customerId, null, 7);
+		int count = page.getItems().size();
+		while (page.isHasNext()) {
+			page = orderService.getOrderPage(customerId, page.getNextCursor(), 7);
+			count += page.getItems().size();
+		}
+		return count;
+	}
+
+	private static List<Long> ids(OrderPage page) {
+		return page.getItems().stream().map(Order::getId).toList();
+	}
+
+	private static Order newOrder(Long customerId, LocalDateTime orderDate) {
+		Order order = new Order();
+		order.setCustomerId(customerId);
+		order.setOrderDate(orderDate);
+		order.setTotalAmount(new BigDecimal("4.20"));
+		return order;
+	}
+
+}
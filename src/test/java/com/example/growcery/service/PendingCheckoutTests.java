@@ -0,0 +1,131 @@
+package com.example.growcery.service;
+
+import com.example.growcery.model.CartItem;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import com.example.growcery.model.Product;
+import com.example.growcery.repository.CartItemRepository;
+import com.example.growcery.repository.OrderItemRepository;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ServiceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PendingCheckoutTests {
+
+	private static final long CUSTOMER = 1L;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CartItemRepository cartItemRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void cleanUp() {
+		orderItemRepository.deleteAll();
+		orderRepository.deleteAll();
+		cartItemRepository.deleteAll();
+		productRepository.deleteAll();
+	}
+
+	@Test
+	void pendingOrderIsFulfilledFromItsOwnLines() {
+		Product mango = saveProduct("Mango", "1.50", 10);
+		Product kiwi = saveProduct("Kiwi", "0.40", 10);
+		cartService.addToCart(CUSTOMER, mango.getId(), 2);
+
+		Order pending = orderService.createPendingOrder(CUSTOMER);
+		assertEquals(new BigDecimal("3.00"), pending.getTotalAmount());
+		assertThrows(RuntimeException.class, () -> orderService.createPendingOrder(CUSTOMER));
+
+		// The cart and the price move on before the worker gets to the order
+		cartService.addToCart(CUSTOMER, mango.getId(), 3);
+		cartService.addToCart(CUSTOMER, kiwi.getId(), 1);
+		productService.updateProduct(new Product(mango.getId(), "Mango", null, Product.Category.FRUIT,
+				new BigDecimal("9.99"), 10, null));
+
+		Order placed = orderService.completePendingOrder(pending.getId());
+		assertEquals(Order.OrderStatus.SUCCESSFUL, placed.getStatus());
+		assertEquals(new BigDecimal("3.00"), placed.getTotalAmount());
+		List<OrderItem> lines = orderItemRepository.findByOrderId(pending.getId());
+		assertEquals(1, lines.size());
+		assertEquals(2, lines.get(0).getQuantity());
+		assertEquals(new BigDecimal("1.50"), lines.get(0).getPrice());
+		assertEquals(8, productRepository.findById(mango.getId()).orElseThrow().getStock());
+
+		// Only the ordered product left the cart
+		List<CartItem> cart = cartService.getCartLines(CUSTOMER);
+		assertEquals(1, cart.size());
+		assertEquals(kiwi.getId(), cart.get(0).getProductId());
+	}
+
+	@Test
+	void failureMessageFitsTheColumn() {
+		Product mango = saveProduct("Mango", "1.50", 10);
+		cartService.addToCart(CUSTOMER, mango.getId(), 1);
+		Order first = orderService.createPendingOrder(CUSTOMER);
+		orderService.failPendingOrder(first.getId(), "x".repeat(1000));
+		Order second = orderService.createPendingOrder(CUSTOMER);
+		orderService.failPendingOrder(second.getId(), null);
+
+		String truncated = orderRepository.findById(first.getId()).orElseThrow().getStatusMessage();
+		assertEquals(255, truncated.length());
+		assertFalse(orderRepository.findById(second.getId()).orElseThrow().getStatusMessage().isBlank());
+	}
+
+	@Test
+	void clearedCartKeepsItsHoldsUntilCommit() {
+		Product mango = saveProduct("Mango", "1.50", 10);
+		cartService.addToCart(CUSTOMER, mango.getId(), 4);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			cartService.clearCart(CUSTOMER);
+			assertEquals(4, productService.getReservedStock(mango.getId(), CUSTOMER));
+			status.setRollbackOnly();
+		});
+		assertEquals(1, cartService.getCartLines(CUSTOMER).size());
+		assertEquals(4, productService.getReservedStock(mango.getId(), CUSTOMER));
+
+		cartService.clearCart(CUSTOMER);
+		assertEquals(0, productService.getReservedStock(mango.getId(), CUSTOMER));
+	}
+
+	private Product saveProduct(String name, String price, int stock) {
+		return productService.updateProduct(new Product(null, name, null, Product.Category.FRUIT,
+				new BigDecimal(price), stock, null));
+	}
+
+}
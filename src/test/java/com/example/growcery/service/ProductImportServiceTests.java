@@ -0,0 +1,141 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.ProductImportReport;
+import com.example.growcery.model.Product;
+import com.example.growcery.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Each batch commits in its own transaction, which a test transaction would swallow
+@ServiceTest(properties = "growcery.import.batch-size=3")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductImportServiceTests {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductImportService productImportService;
+
+	@AfterEach
+	void cleanUp() {
+		productRepository.deleteAll();
+	}
+
+	@Test
+	void csvRowsAreUpsertedAndBadRowsReported() throws Exception {
+		Product apple = productService.updateProduct(new Product(null, "Apple", null, Product.Category.FRUIT,
+				new BigDecimal("1.00"), 10, null));
+
+		String csv = "name,category,price,stock,product_description\n"
+				+ "Apple,FRUIT,1.25,40,\n"
+				+ "Carrot,vegetable,0.80,100,\"Crunchy, \"\"orange\"\"\nand sweet\"\n"
+				+ "Pear,FRUIT,-1,5,\n"
+				+ "Kale,MEAT,2.00,5,\n"
+				+ "\n"
+				+ "Leek,VEGETABLE,1.10,12,\n"
+				+ "Plum,FRUIT,0.50,30,\n"
+				+ "Carrot,VEGETABLE,0.85,90,\n";
+		ProductImportReport report = productImportService.importProducts("prices.csv", ExportService.Format.CSV,
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertNull(report.getFailure());
+		assertEquals(7, report.getRowsRead());
+		assertEquals(3, report.getCreated());
+		assertEquals(2, report.getUpdated());
+		assertEquals(2, report.getRejected());
+
+		assertEquals(new BigDecimal("1.25"), productRepository.findById(apple.getId()).orElseThrow().getPrice());
+		List<Product> carrots = productRepository.findByNameIn(List.of("Carrot"));
+		assertEquals(1, carrots.size());
+		assertEquals(90, carrots.get(0).getStock());
+		assertEquals("Crunchy, \"orange\"\nand sweet", carrots.get(0).getProductDescription());
+		assertEquals(4, productService.getAllProducts().size());
+
+		List<String> errors = Files.readAllLines(productImportService.getErrorFile(report.getId()).orElseThrow());
+		assertEquals(3, errors.size());
+		assertTrue(errors.get(1).startsWith("5,Price must be greater than or equal to 0,,Pear,"));
+		assertTrue(errors.get(2).startsWith("6,Invalid category: MEAT,,Kale,"));
+	}
+
+	@Test
+	void jsonlUnknownIdOnlyRejectsThatRow() throws Exception {
+		String jsonl = "{\"name\":\"Fig\",\"category\":\"FRUIT\",\"price\":3.5,\"stock\":4}\n"
+				+ "{\"id\":999999,\"name\":\"Ghost\",\"category\":\"FRUIT\",\"price\":1,\"stock\":1}\n"
+				+ "not json\n"
+				+ "{\"name\":\"Date\",\"category\":\"FRUIT\",\"price\":\"2.10\",\"stock\":8,\"seoKeywords\":\"sweet\"}\n";
+		ProductImportReport report = productImportService.importProducts("prices.jsonl", ExportService.Format.JSONL,
+				new ByteArrayInputStream(jsonl.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(4, report.getRowsRead());
+		assertEquals(2, report.getCreated());
+		assertEquals(2, report.getRejected());
+		assertEquals("sweet", productRepository.findByNameIn(List.of("Date")).get(0).getSeoKeywords());
+	}
+
+	@Test
+	void batchFailingAtFlushIsRetriedRowByRow() throws Exception {
+		Product apple = productService.updateProduct(new Product(null, "Apple", null, Product.Category.FRUIT,
+				new BigDecimal("1.00"), 10, "red"));
+		Product kale = productService.updateProduct(new Product(null, "Kale", null, Product.Category.VEGETABLE,
+				new BigDecimal("2.00"), 5, null));
+
+		// Passes validation but is too long for the column, so the batch only fails when it is flushed
+		String csv = "name,category,price,stock,seo_keywords\n"
+				+ "Apple,FRUIT,1.10,12," + "x".repeat(300) + "\n"
+				+ "Kale,VEGETABLE,2.20,7,\n"
+				+ "Leek,VEGETABLE,1.10,12,\n";
+		ProductImportReport report = productImportService.importProducts("prices.csv", ExportService.Format.CSV,
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertNull(report.getFailure());
+		assertEquals(3, report.getRowsRead());
+		assertEquals(1, report.getCreated());
+		assertEquals(1, report.getUpdated());
+		assertEquals(1, report.getRejected());
+
+		Product storedApple = productRepository.findById(apple.getId()).orElseThrow();
+		assertEquals(new BigDecimal("1.00"), storedApple.getPrice());
+		assertEquals("red", storedApple.getSeoKeywords());
+		assertEquals(7, productRepository.findById(kale.getId()).orElseThrow().getStock());
+		// The rolled back first attempt must not leave a second Leek behind
+		assertEquals(1, productRepository.findByNameIn(List.of("Leek")).size());
+		assertEquals(3, productRepository.count());
+		assertEquals(3, productService.getAllProducts().size());
+
+		List<String> errors = Files.readAllLines(productImportService.getErrorFile(report.getId()).orElseThrow());
+		assertEquals(2, errors.size());
+		assertTrue(errors.get(1).startsWith("2,"));
+	}
+
+	@Test
+	void nameRepeatedInAnotherCaseUpdatesTheSameProduct() throws Exception {
+		String csv = "name,category,price,stock\n"
+				+ "Kiwi,FRUIT,0.40,10\n"
+				+ "KIWI,FRUIT,0.45,12\n";
+		ProductImportReport report = productImportService.importProducts("prices.csv", ExportService.Format.CSV,
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(1, report.getCreated());
+		assertEquals(1, report.getUpdated());
+		assertEquals(1, productRepository.count());
+		assertEquals(12, productRepository.findAll().get(0).getStock());
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.ProductFilter;
+import com.example.growcery.dto.ProductPage;
+import com.example.growcery.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ServiceTest
+class ProductPagingTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Test
+	void nextPageSeeksPastAnEditedOrDeletedLastProduct() {
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			products.add(productService.updateProduct(new Product(null, "Apple " + i, null, Product.Category.FRUIT,
+					new BigDecimal(i + ".00"), 5, null)));
+		}
+
+		ProductPage first = productService.getProductPage(new ProductFilter(), ProductPage.SortField.PRICE, null, 4);
+		assertEquals(ids(products.subList(0, 4)), ids(first.getItems()));
+
+		// The page's last product gets a new price, the next one in line disappears
+		Product last = products.get(3);
+		productService.updateProduct(new Product(last.getId(), last.getName(), null, Product.Category.FRUIT,
+				new BigDecimal("99.00"), 5, null));
+		productService.deleteProduct(products.get(4).getId());
+
+		ProductPage second = productService.getProductPage(new ProductFilter(), ProductPage.SortField.PRICE,
+				first.getNextCursor(), 4);
+		assertEquals(ids(products.subList(5, 9)), ids(second.getItems()));
+
+		// Same cursor through the in-memory facet path
+		ProductFilter inStock = new ProductFilter().withInStockOnly(true);
+		ProductPage filtered = productService.getProductPage(inStock, ProductPage.SortField.PRICE,
+				first.getNextCursor(), 4);
+		assertEquals(ids(products.subList(5, 9)), ids(filtered.getItems()));
+
+		// A cursor cut for another sort starts over
+		ProductPage byName = productService.getProductPage(new ProductFilter(), ProductPage.SortField.NAME,
+				first.getNextCursor(), 4);
+		assertEquals(ids(products.subList(0, 4)), ids(byName.getItems()));
+	}
+
+	@Test
+	void facetPathSortsNamesWithoutRegardToCase() {
+		Product cherry = saveProduct("Cherry");
+		Product apple = saveProduct("apple");
+		Product banana = saveProduct("banana");
+
+		ProductFilter inStock = new ProductFilter().withInStockOnly(true);
+		ProductPage first = productService.getProductPage(inStock, ProductPage.SortField.NAME, null, 2);
+		assertEquals(ids(List.of(apple, banana)), ids(first.getItems()));
+
+		ProductPage second = productService.getProductPage(inStock, ProductPage.SortField.NAME,
+				first.getNextCursor(), 2);
+		assertEquals(ids(List.of(cherry)), ids(second.getItems()));
+	}
+
+	private Product saveProduct(String name) {
+		return productService.updateProduct(new Product(null, name, null, Product.Category.FRUIT,
+				new BigDecimal("1.00"), 5, null));
+	}
+
+	private static List<Long> ids(List<Product> products) {
+		return products.stream().map(Product::getId).toList();
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.example.growcery.service;
+
+import com.example.growcery.model.Product;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ServiceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockConcurrencyTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductStockConcurrencyTests.class);
+
+	private static final int THREADS = 32;
+	private static final int ATTEMPTS_PER_THREAD = 50;
+	private static final int INITIAL_STOCK = 500;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private DashboardCounters dashboardCounters;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@AfterEach
+	void cleanUp() {
+		productRepository.deleteAll();
+	}
+
+	@Test
+	void productIsNeverOversold() throws Exception {
+		Product product = saveProduct();
+		HotInventory hotInventory = new HotInventory(Set.of(), 8);
+		ProductService productService = new ProductService(productRepository, new ProductSearchIndex(), hotInventory,
+				new StockReservations(900, 1000, 512), dashboardCounters, lowStockMonitor(hotInventory));
+
+		int sold = hammer(productService, product.getId(), "Row update");
+
+		assertEquals(INITIAL_STOCK, sold);
+		assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+		assertEquals(0, productService.getProductById(product.getId()).orElseThrow().getStock());
+	}
+
+	@Test
+	void hotProductIsNeverOversold() throws Exception {
+		Product product = saveProduct();
+		HotInventory hotInventory = new HotInventory(Set.of(product.getId()), 8);
+		ProductService productService = new ProductService(productRepository, new ProductSearchIndex(), hotInventory,
+				new StockReservations(900, 1000, 512), dashboardCounters, lowStockMonitor(hotInventory));
+		productService.restoreHotInventory();
+
+		int sold = hammer(productService, product.getId(), "Striped counters");
+		productService.flushHotInventory();
+
+		assertEquals(INITIAL_STOCK, sold);
+		assertEquals(0, hotInventory.available(product.getId()));
+		assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+	}
+
+	private LowStockMonitor lowStockMonitor(HotInventory hotInventory) {
+		return new LowStockMonitor(productRepository, orderRepository, hotInventory, 14, 3, 10);
+	}
+
+	private Product saveProduct() {
+		return productRepository.save(new Product(null, "Mango", null, Product.Category.FRUIT,
+				new BigDecimal("1.50"), INITIAL_STOCK, null));
+	}
+
+	private int hammer(ProductService productService, Long productId, String label) throws Exception {
+		AtomicInteger sold = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> workers = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			workers.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					if (productService.updateStock(productId, 1)) {
+						sold.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+
+		long began = System.nanoTime();
+		start.countDown();
+		for (Future<?> worker : workers) {
+			worker.get(60, TimeUnit.SECONDS);
+		}
+		long elapsed = System.nanoTime() - began;
+		pool.shutdown();
+
+		int attempts = THREADS * ATTEMPTS_PER_THREAD;
+		logger.info("{}: {} attempts on one product in {} ms ({} ops/s)", label, attempts,
+				TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(attempts / (elapsed / 1e9)));
+		return sold.get();
+	}
+
+}
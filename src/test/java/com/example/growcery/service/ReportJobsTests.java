@@ -0,0 +1,140 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.ReportJob;
+import com.example.growcery.dto.ReportRow;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import com.example.growcery.model.Product;
+import com.example.growcery.model.User;
+import com.example.growcery.repository.OrderItemRepository;
+import com.example.growcery.repository.OrderRepository;
+import com.example.growcery.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Workers read on their own connections, so the test data has to be committed
+@ServiceTest(properties = "growcery.reports.chunk-days=3")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportJobsTests {
+
+	private static final LocalDate START = LocalDate.of(2023, 1, 1);
+
+	@Autowired
+	private ReportJobs reportJobs;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@AfterEach
+	void cleanUp() {
+		orderItemRepository.deleteAll();
+		orderRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void chunksAreScannedAndMerged() throws Exception {
+		Long ann = saveCustomer("ann");
+		Long bob = saveCustomer("bob");
+		// Spread over several 3-day chunks, including both ends of the range
+		saveOrder(ann, START, Order.OrderStatus.SUCCESSFUL, line(1L, "Apple", Product.Category.FRUIT, 2, "1.00"),
+				line(2L, "Kale", Product.Category.VEGETABLE, 1, "3.00"));
+		saveOrder(ann, START.plusDays(5), Order.OrderStatus.SUCCESSFUL,
+				line(1L, "Apple", Product.Category.FRUIT, 4, "1.00"));
+		saveOrder(bob, START.plusDays(9), Order.OrderStatus.SUCCESSFUL,
+				line(2L, "Kale", Product.Category.VEGETABLE, 5, "3.00"));
+		saveOrder(bob, START.plusDays(9), Order.OrderStatus.FAILED,
+				line(1L, "Apple", Product.Category.FRUIT, 50, "1.00"));
+		// Outside the range
+		saveOrder(bob, START.plusDays(10), Order.OrderStatus.SUCCESSFUL,
+				line(1L, "Apple", Product.Category.FRUIT, 7, "1.00"));
+
+		ReportJob byCategory = await(reportJobs.submit(ReportJob.Type.CATEGORY, START, START.plusDays(9)));
+		assertEquals(ReportJob.Status.DONE, byCategory.getStatus());
+		assertEquals(100, byCategory.getProgressPercent());
+		List<ReportRow> categories = byCategory.getRows();
+		assertEquals(2, categories.size());
+		assertEquals("VEGETABLE", categories.get(0).getLabel());
+		assertEquals(new BigDecimal("18.00"), categories.get(0).getRevenue());
+		assertEquals(2, categories.get(0).getOrders());
+		assertEquals(6, categories.get(1).getUnits());
+		assertEquals(new BigDecimal("24.00"), byCategory.getTotalRevenue());
+
+		ReportJob byCustomer = await(reportJobs.submit(ReportJob.Type.CUSTOMER, START, START.plusDays(9)));
+		List<ReportRow> customers = byCustomer.getRows();
+		assertEquals("bob", customers.get(0).getLabel());
+		assertEquals(String.valueOf(ann), customers.get(1).getKey());
+		assertEquals(new BigDecimal("9.00"), customers.get(1).getRevenue());
+		assertEquals(2, customers.get(1).getOrders());
+
+		// A finished report over a closed range is served again
+		assertSame(byCustomer, reportJobs.submit(ReportJob.Type.CUSTOMER, START, START.plusDays(9)));
+
+		StringWriter csv = new StringWriter();
+		reportJobs.writeCsv(byCustomer, csv);
+		assertTrue(csv.toString().startsWith("customer_key,customer,orders,units,revenue\n" + bob + ",bob,1,5,15.00\n"));
+	}
+
+	private ReportJob await(ReportJob job) throws InterruptedException {
+		for (int i = 0; i < 500 && job.isRunning(); i++) {
+			Thread.sleep(10);
+		}
+		return job;
+	}
+
+	private Long saveCustomer(String username) {
+		User user = new User();
+		user.setUsername(username);
+		user.setPassword("secret");
+		user.setRole(User.Role.CUSTOMER);
+		user.setAddress("1 Market Street");
+		user.setMobileNumber("01234567890123456789");
+		return userRepository.save(user).getId();
+	}
+
+	private void saveOrder(Long customerId, LocalDate day, Order.OrderStatus status, OrderItem... items) {
+		BigDecimal total = BigDecimal.ZERO;
+		for (OrderItem item : items) {
+			total = total.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+		}
+		Order order = new Order();
+		order.setCustomerId(customerId);
+		order.setOrderDate(day.atTime(12, 0));
+		order.setStatus(status);
+		order.setTotalAmount(total);
+		order = orderRepository.save(order);
+		for (OrderItem item : items) {
+			item.setOrderId(order.getId());
+		}
+		orderItemRepository.saveAll(List.of(items));
+	}
+
+	private static OrderItem line(Long productId, String name, Product.Category category, int quantity, String price) {
+		OrderItem item = new OrderItem();
+		item.setProductId(productId);
+		item.setProductName(name);
+		item.setProductCategory(category);
+		item.setQuantity(quantity);
+		item.setPrice(new BigDecimal(price));
+		return item;
+	}
+
+}
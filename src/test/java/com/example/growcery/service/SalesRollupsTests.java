@@ -0,0 +1,113 @@
+package com.example.growcery.service;
+
+import com.example.growcery.dto.ProductSales;
+import com.example.growcery.dto.SalesSummary;
+import com.example.growcery.model.Order;
+import com.example.growcery.model.OrderItem;
+import com.example.growcery.repository.OrderItemRepository;
+import com.example.growcery.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ServiceTest
+class SalesRollupsTests {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private SalesRollups salesRollups;
+
+	@Test
+	void rebuildReadsOrderTables() {
+		LocalDateTime now = LocalDateTime.now().withMinute(30);
+		saveOrder(now.minusHours(1), Order.OrderStatus.SUCCESSFUL,
+				line(1L, "Apple", 3, "1.00"), line(2L, "Kiwi", 1, "2.50"));
+		saveOrder(now.minusDays(2), Order.OrderStatus.SUCCESSFUL, line(2L, "Kiwi", 4, "2.50"));
+		saveOrder(now.minusDays(2), Order.OrderStatus.FAILED, line(1L, "Apple", 50, "1.00"));
+		// Outside the dashboard window, but still counts towards the best sellers
+		saveOrder(now.minusDays(200), Order.OrderStatus.SUCCESSFUL, line(1L, "Apple", 2, "1.00"));
+		orderRepository.flush();
+
+		salesRollups.rebuild();
+		SalesSummary summary = salesRollups.getSummary(now);
+
+		assertEquals(2, summary.getOrders());
+		assertEquals(8, summary.getUnits());
+		assertEquals(new BigDecimal("15.50"), summary.getRevenue());
+		assertEquals(4.0, summary.getAverageBasketSize());
+		assertEquals(new BigDecimal("7.75"), summary.getAverageOrderValue());
+
+		List<SalesSummary.Bucket> days = summary.getRevenueByDay();
+		assertEquals(new BigDecimal("10.00"), days.get(days.size() - 3).getValue());
+		assertEquals(new BigDecimal("1"), summary.getOrdersByHour().get(22).getValue());
+
+		List<ProductSales> top = summary.getTopProducts();
+		// Ties go to the lower product id
+		assertEquals("Apple", top.get(0).getProductName());
+		assertEquals(5, top.get(0).getUnits());
+		assertEquals("Kiwi", top.get(1).getProductName());
+		assertEquals(new BigDecimal("12.50"), top.get(1).getRevenue());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void checkoutsOutsideATransactionApplyAtOnce() {
+		LocalDateTime now = LocalDateTime.now();
+		SalesSummary before = salesRollups.getSummary(now);
+
+		Order order = new Order();
+		order.setOrderDate(now);
+		order.setStatus(Order.OrderStatus.SUCCESSFUL);
+		order.setTotalAmount(new BigDecimal("6.00"));
+		salesRollups.record(order, List.of(line(7L, "Mango", 2, "3.00")));
+
+		SalesSummary after = salesRollups.getSummary(now);
+		assertEquals(before.getOrders() + 1, after.getOrders());
+		assertEquals(before.getRevenue().add(new BigDecimal("6.00")), after.getRevenue());
+		assertEquals(before.getOrdersByHour().get(23).getValue().add(BigDecimal.ONE),
+				after.getOrdersByHour().get(23).getValue());
+	}
+
+	private void saveOrder(LocalDateTime orderDate, Order.OrderStatus status, OrderItem... items) {
+		BigDecimal total = BigDecimal.ZERO;
+		for (OrderItem item : items) {
+			total = total.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+		}
+		Order order = new Order();
+		order.setCustomerId(1L);
+		order.setOrderDate(orderDate);
+		order.setStatus(status);
+		order.setTotalAmount(total);
+		order = orderRepository.save(order);
+
+		List<OrderItem> lines = new ArrayList<>();
+		for (OrderItem item : items) {
+			item.setOrderId(order.getId());
+			lines.add(item);
+		}
+		orderItemRepository.saveAll(lines);
+	}
+
+	private static OrderItem line(Long productId, String name, int quantity, String price) {
+		OrderItem item = new OrderItem();
+		item.setProductId(productId);
+		item.setProductName(name);
+		item.setQuantity(quantity);
+		item.setPrice(new BigDecimal(price));
+		return item;
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.example.growcery.service;
+
+import com.example.growcery.config.RestConfig;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A JPA slice with the whole service layer on top. Every test using it without
+ * extra properties shares one cached context; the H2 settings come from the test
+ * application.properties. The ObjectMapper is the application's own, from RestConfig.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest
+@Import({ProductService.class, ProductSearchIndex.class, HotInventory.class, StockReservations.class,
+		DashboardCounters.class, CartService.class, OrderService.class, SalesRollups.class,
+		OrderViewCache.class, OrderArchive.class, LowStockMonitor.class, CheckoutRequestService.class,
+		ExportService.class, ProductImportService.class, ReportJobs.class,
+		LocalValidatorFactoryBean.class, RestConfig.class})
+public @interface ServiceTest {
+
+	@AliasFor(annotation = DataJpaTest.class)
+	String[] properties() default {};
+
+}
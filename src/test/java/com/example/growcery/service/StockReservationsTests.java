@@ -0,0 +1,61 @@
+package com.example.growcery.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockReservationsTests {
+
+	private static final long PRODUCT = 7L;
+
+	@Test
+	void holdsAreReleasedWhenTheirTtlRunsOut() {
+		// A 10 tick TTL on a 4 bucket wheel: the hold's bucket comes round twice before it is due
+		StockReservations reservations = new StockReservations(10, 1000, 4);
+		assertTrue(reservations.reserve(1L, PRODUCT, 6, 10));
+		assertTrue(reservations.reserve(2L, PRODUCT, 4, 10));
+		assertFalse(reservations.reserve(3L, PRODUCT, 1, 10));
+
+		tick(reservations, 9);
+		assertEquals(10, reservations.reserved(PRODUCT));
+
+		tick(reservations, 1);
+		assertEquals(0, reservations.reserved(PRODUCT));
+		assertEquals(0, reservations.reservedBy(PRODUCT, 1L));
+		assertTrue(reservations.reserve(3L, PRODUCT, 10, 10));
+	}
+
+	@Test
+	void touchingAHoldRestartsItsTtl() {
+		StockReservations reservations = new StockReservations(10, 1000, 4);
+		assertTrue(reservations.reserve(1L, PRODUCT, 2, 10));
+		assertTrue(reservations.reserve(2L, PRODUCT, 3, 10));
+
+		tick(reservations, 6);
+		// Customer 1 changes the cart line, customer 2 leaves theirs alone
+		assertTrue(reservations.reserve(1L, PRODUCT, 5, 10));
+
+		tick(reservations, 4);
+		assertEquals(5, reservations.reserved(PRODUCT));
+		assertEquals(0, reservations.reservedBy(PRODUCT, 2L));
+
+		tick(reservations, 5);
+		assertEquals(5, reservations.reservedBy(PRODUCT, 1L));
+		tick(reservations, 1);
+		assertEquals(0, reservations.reserved(PRODUCT));
+
+		// Released holds stay released, and a new one starts from scratch
+		reservations.release(1L, PRODUCT);
+		assertTrue(reservations.reserve(1L, PRODUCT, 10, 10));
+		assertEquals(10, reservations.reserved(PRODUCT));
+	}
+
+	private static void tick(StockReservations reservations, int times) {
+		for (int i = 0; i < times; i++) {
+			reservations.tick();
+		}
+	}
+
+}